@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+#
+# Measures startup time and resident memory of the application in its different packaging modes.
+#
+# Usage: scripts/measure-startup.sh <mode>
+#   jvm    : mvn package                      -> target/api-demo-0.0.1-SNAPSHOT.jar
+#   aot    : mvn -Paot package                -> same jar started with -Dspring.aot.enabled=true
+#   cds    : mvn -Pcds package                -> plain jar started with the AppCDS archive
+#   native : mvn -Pnative native:compile      -> target/api-demo
+#
+# The application is started with the prod profile, the time is read from the "Started ApiDemoApplication" log line
+# and the RSS of the process is sampled once the application is ready.
+
+set -euo pipefail
+
+MODE=${1:-jvm}
+TARGET=$(dirname "$0")/../target
+JAR=$TARGET/api-demo-0.0.1-SNAPSHOT.jar
+LOG=$(mktemp)
+
+case "$MODE" in
+  jvm)    CMD=(java -jar "$JAR") ;;
+  aot)    CMD=(java -Dspring.aot.enabled=true -jar "$JAR") ;;
+  cds)    CMD=(java -XX:SharedArchiveFile="$TARGET/api-demo.jsa" -jar "$JAR") ;;
+  native) CMD=("$TARGET/api-demo") ;;
+  *)      echo "Unknown mode: $MODE" >&2; exit 1 ;;
+esac
+
+"${CMD[@]}" --spring.profiles.active=prod > "$LOG" 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null; rm -f "$LOG"' EXIT
+
+until grep -q "Started ApiDemoApplication" "$LOG"; do
+  if ! kill -0 $PID 2>/dev/null; then
+    cat "$LOG" >&2
+    exit 1
+  fi
+  sleep 0.1
+done
+
+STARTUP=$(grep -o "Started ApiDemoApplication in [0-9.]* seconds" "$LOG" | grep -o "[0-9.]*")
+RSS_KB=$(ps -o rss= -p $PID | tr -d ' ')
+# Row of the "Startup modes" table of readme.md
+echo "| $MODE | $STARTUP | $((RSS_KB / 1024)) |"
@@ -1,12 +1,15 @@
 package jp.co.axa.apidemo;
 
+import jp.co.axa.apidemo.config.ApplicationRuntimeHints;
 import org.modelmapper.ModelMapper;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 
 @SpringBootApplication
+@ImportRuntimeHints(ApplicationRuntimeHints.class)
 public class ApiDemoApplication {
 
 
@@ -0,0 +1,123 @@
+package jp.co.axa.apidemo.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from employee id to row of the {@link SalaryColumnStore}, backed by primitive arrays so
+ * that no object is created per employee. Not thread safe, guarded by the lock of the store.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+class EmployeeRowIndex {
+
+    //Marker of an empty slot, rows are never negative
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+
+    private int[] rows;
+
+    private int size;
+
+    EmployeeRowIndex(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * @param employeeId : Employee id to look up
+     * @return : Row of the employee, or -1 if the employee is not indexed
+     */
+    int get(int employeeId) {
+        int mask = keys.length - 1;
+        for (int slot = hash(employeeId) & mask; rows[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == employeeId) {
+                return rows[slot];
+            }
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Adds or replaces the row of an employee.
+     */
+    void put(int employeeId, int row) {
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        int mask = keys.length - 1;
+        int slot = hash(employeeId) & mask;
+        while (rows[slot] != EMPTY) {
+            if (keys[slot] == employeeId) {
+                rows[slot] = row;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = employeeId;
+        rows[slot] = row;
+        size++;
+    }
+
+    /**
+     * Removes an employee, shifting back the following entries of the probe sequence so that no tombstone is needed.
+     */
+    void remove(int employeeId) {
+        int mask = keys.length - 1;
+        int slot = hash(employeeId) & mask;
+        while (rows[slot] != EMPTY && keys[slot] != employeeId) {
+            slot = (slot + 1) & mask;
+        }
+        if (rows[slot] == EMPTY) {
+            return;
+        }
+        size--;
+        int gap = slot;
+        for (int next = (gap + 1) & mask; rows[next] != EMPTY; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            // Move the entry into the gap unless its home slot lies cyclically between the gap and its position
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                rows[gap] = rows[next];
+                gap = next;
+            }
+        }
+        rows[gap] = EMPTY;
+    }
+
+    void clear() {
+        Arrays.fill(rows, EMPTY);
+        size = 0;
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        int[] oldRows = rows;
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldRows[i] != EMPTY) {
+                put(oldKeys[i], oldRows[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        rows = new int[capacity];
+        Arrays.fill(rows, EMPTY);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
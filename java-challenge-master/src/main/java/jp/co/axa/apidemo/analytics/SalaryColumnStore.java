@@ -0,0 +1,422 @@
+package jp.co.axa.apidemo.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar in-memory snapshot of employee salaries used to serve analytics queries without loading the EMPLOYEE
+ * table. Each employee is one row of primitive columns (id, salary, dictionary encoded department), so no object is
+ * kept per employee. The snapshot is loaded once at startup and then kept up to date by the employee service on every
+ * mutation committed by this instance, so it is only exact when a single instance writes to the database. Queries scan
+ * the columns in parallel on the common fork-join pool.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Component
+public class SalaryColumnStore {
+
+    //Department id used to scan the rows of all departments
+    public static final int ALL_DEPARTMENTS = -1;
+
+    //Number of rows below which a scan is not split further
+    private static final int SCAN_THRESHOLD = 8_192;
+
+    private static final int INITIAL_CAPACITY = 1_024;
+
+    //Indexes of the aggregates computed by the StatisticsTask
+    private static final int COUNT = 0;
+    private static final int SUM = 1;
+    private static final int MIN = 2;
+    private static final int MAX = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    //Column of employee ids, used to move the last row into the slot of a removed one
+    private int[] employeeIds = new int[INITIAL_CAPACITY];
+
+    //Column of salaries
+    private long[] salaries = new long[INITIAL_CAPACITY];
+
+    //Column of dictionary encoded departments
+    private int[] departmentIds = new int[INITIAL_CAPACITY];
+
+    //Number of rows in use
+    private int size;
+
+    //Row of each employee id
+    private final EmployeeRowIndex rowIndex = new EmployeeRowIndex(INITIAL_CAPACITY);
+
+    //Dictionary from upper cased department name to department id, folded like the UPPER() of the department query
+    private final Map<String, Integer> departmentDictionary = new HashMap<>();
+
+    //Department names as first seen, indexed by department id
+    private final List<String> departmentNames = new ArrayList<>();
+
+    /**
+     * Adds an employee to the snapshot, or replaces its salary and department if already present.
+     *
+     * @param employeeId : Id of the employee
+     * @param department : Department of the employee
+     * @param salary     : Salary of the employee
+     */
+    public void upsert(int employeeId, String department, long salary) {
+
+        lock.writeLock().lock();
+        try {
+            int departmentId = encodeDepartment(department);
+            int row = rowIndex.get(employeeId);
+            if (row < 0) {
+                ensureCapacity(size + 1);
+                row = size++;
+                employeeIds[row] = employeeId;
+                rowIndex.put(employeeId, row);
+            }
+            salaries[row] = salary;
+            departmentIds[row] = departmentId;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an employee from the snapshot. The last row is moved into the freed row to keep the columns dense.
+     *
+     * @param employeeId : Id of the employee
+     */
+    public void remove(int employeeId) {
+
+        lock.writeLock().lock();
+        try {
+            int row = rowIndex.get(employeeId);
+            if (row < 0) {
+                return;
+            }
+            rowIndex.remove(employeeId);
+            int last = --size;
+            if (row != last) {
+                employeeIds[row] = employeeIds[last];
+                salaries[row] = salaries[last];
+                departmentIds[row] = departmentIds[last];
+                rowIndex.put(employeeIds[row], row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every employee from the snapshot, e.g. before a full reload.
+     */
+    public void clear() {
+
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            rowIndex.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param department : Department name, case insensitive
+     * @return : Id of the department, or empty if no employee was ever seen in it
+     */
+    public OptionalInt departmentId(String department) {
+
+        lock.readLock().lock();
+        try {
+            Integer departmentId = departmentDictionary.get(department.toUpperCase(Locale.ROOT));
+            return departmentId == null ? OptionalInt.empty() : OptionalInt.of(departmentId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Computes nearest-rank percentiles of the salaries of a department.
+     *
+     * @param departmentId : Department id, or {@link #ALL_DEPARTMENTS}
+     * @param percentiles  : Requested percentiles, between 0 (excluded) and 100
+     * @return : Salary at each requested percentile, or an empty array if the department has no employee
+     */
+    public long[] percentiles(int departmentId, double[] percentiles) {
+
+        long[] sorted;
+        lock.readLock().lock();
+        try {
+            final long[] salaryColumn = salaries;
+            final int[] departmentColumn = departmentIds;
+            sorted = IntStream.range(0, size).parallel()
+                    .filter(row -> departmentId == ALL_DEPARTMENTS || departmentColumn[row] == departmentId)
+                    .mapToLong(row -> salaryColumn[row])
+                    .toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (sorted.length == 0) {
+            return new long[0];
+        }
+        Arrays.parallelSort(sorted);
+        long[] result = new long[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            int rank = (int) Math.ceil(percentiles[i] / 100 * sorted.length);
+            result[i] = sorted[Math.max(rank, 1) - 1];
+        }
+        return result;
+    }
+
+    /**
+     * Computes a histogram of the salaries of a department, with equal width buckets between the lowest and the
+     * highest salary.
+     *
+     * @param departmentId : Department id, or {@link #ALL_DEPARTMENTS}
+     * @param buckets      : Number of buckets
+     * @return : Histogram of the salaries, or null if the department has no employee
+     */
+    public Histogram histogram(int departmentId, int buckets) {
+
+        lock.readLock().lock();
+        try {
+            long[][] stats = ForkJoinPool.commonPool().invoke(new StatisticsTask(departmentId, 0, size));
+            if (stats[COUNT][0] == 0) {
+                return null;
+            }
+            long min = stats[MIN][0];
+            long max = stats[MAX][0];
+            long bucketWidth = Math.max(1, (max - min) / buckets + 1);
+            long[] counts = ForkJoinPool.commonPool()
+                    .invoke(new HistogramTask(departmentId, min, bucketWidth, buckets, 0, size));
+            return new Histogram(min, max, bucketWidth, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Computes count, sum, lowest and highest salary of every department in a single scan.
+     *
+     * @return : Statistics of each department having at least one employee
+     */
+    public List<DepartmentStatistics> departmentStatistics() {
+
+        lock.readLock().lock();
+        try {
+            long[][] stats = ForkJoinPool.commonPool().invoke(new StatisticsTask(ALL_DEPARTMENTS, 0, size,
+                    departmentNames.size()));
+            List<DepartmentStatistics> result = new ArrayList<>();
+            for (int departmentId = 0; departmentId < departmentNames.size(); departmentId++) {
+                if (stats[COUNT][departmentId] > 0) {
+                    result.add(new DepartmentStatistics(departmentNames.get(departmentId),
+                            stats[COUNT][departmentId], stats[SUM][departmentId],
+                            stats[MIN][departmentId], stats[MAX][departmentId]));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return : Number of employees in the snapshot
+     */
+    public int size() {
+
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int encodeDepartment(String department) {
+        return departmentDictionary.computeIfAbsent(department.toUpperCase(Locale.ROOT), key -> {
+            departmentNames.add(department);
+            return departmentNames.size() - 1;
+        });
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > salaries.length) {
+            int newCapacity = Math.max(capacity, salaries.length * 2);
+            employeeIds = Arrays.copyOf(employeeIds, newCapacity);
+            salaries = Arrays.copyOf(salaries, newCapacity);
+            departmentIds = Arrays.copyOf(departmentIds, newCapacity);
+        }
+    }
+
+    /**
+     * Fork-join scan computing count, sum, lowest and highest salary. The result holds one slot per department when a
+     * number of slots is given, otherwise a single slot for the scanned department (or the whole organization).
+     */
+    private class StatisticsTask extends RecursiveTask<long[][]> {
+
+        private final int departmentId;
+        private final int from;
+        private final int to;
+        private final int slots;
+
+        StatisticsTask(int departmentId, int from, int to) {
+            this(departmentId, from, to, 0);
+        }
+
+        StatisticsTask(int departmentId, int from, int to, int slots) {
+            this.departmentId = departmentId;
+            this.from = from;
+            this.to = to;
+            this.slots = slots;
+        }
+
+        @Override
+        protected long[][] compute() {
+
+            if (to - from > SCAN_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                StatisticsTask left = new StatisticsTask(departmentId, from, middle, slots);
+                left.fork();
+                long[][] right = new StatisticsTask(departmentId, middle, to, slots).compute();
+                return merge(left.join(), right);
+            }
+
+            boolean perDepartment = slots > 0;
+            long[][] stats = newStats(perDepartment ? slots : 1);
+            for (int row = from; row < to; row++) {
+                int rowDepartment = departmentIds[row];
+                if (departmentId != ALL_DEPARTMENTS && rowDepartment != departmentId) {
+                    continue;
+                }
+                int slot = perDepartment ? rowDepartment : 0;
+                long salary = salaries[row];
+                stats[COUNT][slot]++;
+                stats[SUM][slot] += salary;
+                stats[MIN][slot] = Math.min(stats[MIN][slot], salary);
+                stats[MAX][slot] = Math.max(stats[MAX][slot], salary);
+            }
+            return stats;
+        }
+
+        private long[][] newStats(int length) {
+            long[][] stats = new long[4][length];
+            Arrays.fill(stats[MIN], Long.MAX_VALUE);
+            Arrays.fill(stats[MAX], Long.MIN_VALUE);
+            return stats;
+        }
+
+        private long[][] merge(long[][] left, long[][] right) {
+            for (int slot = 0; slot < left[COUNT].length; slot++) {
+                left[COUNT][slot] += right[COUNT][slot];
+                left[SUM][slot] += right[SUM][slot];
+                left[MIN][slot] = Math.min(left[MIN][slot], right[MIN][slot]);
+                left[MAX][slot] = Math.max(left[MAX][slot], right[MAX][slot]);
+            }
+            return left;
+        }
+    }
+
+    /**
+     * Fork-join scan counting the salaries falling in each bucket of a histogram.
+     */
+    private class HistogramTask extends RecursiveTask<long[]> {
+
+        private final int departmentId;
+        private final long min;
+        private final long bucketWidth;
+        private final int buckets;
+        private final int from;
+        private final int to;
+
+        HistogramTask(int departmentId, long min, long bucketWidth, int buckets, int from, int to) {
+            this.departmentId = departmentId;
+            this.min = min;
+            this.bucketWidth = bucketWidth;
+            this.buckets = buckets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+
+            if (to - from > SCAN_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                HistogramTask left = new HistogramTask(departmentId, min, bucketWidth, buckets, from, middle);
+                left.fork();
+                long[] right = new HistogramTask(departmentId, min, bucketWidth, buckets, middle, to).compute();
+                long[] counts = left.join();
+                for (int bucket = 0; bucket < buckets; bucket++) {
+                    counts[bucket] += right[bucket];
+                }
+                return counts;
+            }
+
+            long[] counts = new long[buckets];
+            for (int row = from; row < to; row++) {
+                if (departmentId == ALL_DEPARTMENTS || departmentIds[row] == departmentId) {
+                    counts[(int) Math.min((salaries[row] - min) / bucketWidth, buckets - 1)]++;
+                }
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Histogram of salaries with equal width buckets, the first one starting at the lowest salary.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Histogram {
+
+        //Lowest salary
+        private final long min;
+
+        //Highest salary
+        private final long max;
+
+        //Salary range covered by each bucket
+        private final long bucketWidth;
+
+        //Number of employees in each bucket
+        private final long[] counts;
+    }
+
+    /**
+     * Aggregated salaries of a department.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class DepartmentStatistics {
+
+        //Department name
+        private final String department;
+
+        //Number of employees
+        private final long count;
+
+        //Sum of the salaries
+        private final long sum;
+
+        //Lowest salary
+        private final long min;
+
+        //Highest salary
+        private final long max;
+    }
+}
@@ -0,0 +1,39 @@
+package jp.co.axa.apidemo.config;
+
+import jp.co.axa.apidemo.entities.Employee;
+import jp.co.axa.apidemo.exception.ExceptionDetails;
+import jp.co.axa.apidemo.model.EmployeeDTO;
+import jp.co.axa.apidemo.model.EmployeeSnapshot;
+import jp.co.axa.apidemo.model.EmployeeSummary;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.data.projection.TargetAware;
+
+/**
+ * Runtime hints needed by the GraalVM native image. ModelMapper and Jackson access the entity and DTO classes
+ * reflectively, and Spring Data creates JDK proxies for the {@link EmployeeSummary} and
+ * {@link EmployeeSnapshot} projections.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+public class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+
+        hints.reflection().registerType(Employee.class, MemberCategory.values());
+        hints.reflection().registerType(EmployeeDTO.class, MemberCategory.values());
+        hints.reflection().registerType(ExceptionDetails.class, MemberCategory.values());
+
+        hints.reflection().registerType(EmployeeSummary.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(EmployeeSummary.class,
+                TargetAware.class));
+
+        hints.reflection().registerType(EmployeeSnapshot.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(EmployeeSnapshot.class,
+                TargetAware.class));
+    }
+}
@@ -0,0 +1,30 @@
+package jp.co.axa.apidemo.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration used by the AppCDS training run of the "cds" Maven profile. Once the application is fully started
+ * it exits, so that the JVM dumps every class loaded during startup into the shared archive.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cds.training-run", havingValue = "true")
+public class CdsTrainingRunConfig {
+
+    /**
+     * Listener closing the application as soon as it is ready to serve requests.
+     *
+     * @return : Listener of the {@link ApplicationReadyEvent}
+     */
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> cdsTrainingRunExit() {
+        return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -0,0 +1,43 @@
+package jp.co.axa.apidemo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Configuration class registering compact binary message converters (CBOR and Smile) next to the default JSON one,
+ * so that consumers can pick the response encoding through the Accept header.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Configuration
+public class ContentNegotiationConfig {
+
+    //Media type of the Jackson Smile binary JSON encoding
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * Message converter writing responses as CBOR when the client asks for application/cbor.
+     *
+     * @param builder : Object mapper builder configured by Spring Boot with the spring.jackson.* properties
+     * @return : CBOR message converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.cbor().build());
+    }
+
+    /**
+     * Message converter writing responses as Smile when the client asks for application/x-jackson-smile.
+     *
+     * @param builder : Object mapper builder configured by Spring Boot with the spring.jackson.* properties
+     * @return : Smile message converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.smile().build());
+    }
+}
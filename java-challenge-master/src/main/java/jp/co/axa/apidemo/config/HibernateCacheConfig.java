@@ -0,0 +1,85 @@
+package jp.co.axa.apidemo.config;
+
+import jp.co.axa.apidemo.entities.Employee;
+import jp.co.axa.apidemo.repositories.EmployeeRepository;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Configuration class creating the JCache (Ehcache) cache manager used by the Hibernate second-level and query
+ * cache, with each region sized from application.properties.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    //Number of entries of the update timestamps region, which holds one entry per table and must never expire
+    private static final long UPDATE_TIMESTAMPS_ENTRIES = 100;
+
+    /**
+     * Cache manager holding the Hibernate cache regions.
+     *
+     * @param employeeEntries    : Maximum number of employees kept in the entity region
+     * @param employeeTimeToLive : Time after which a cached employee expires
+     * @param queryEntries       : Maximum number of department lookup results kept in the query cache
+     * @param queryTimeToLive    : Time after which a cached department lookup expires
+     * @return : JCache cache manager containing all the Hibernate regions
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${app.cache.employee.max-entries}") long employeeEntries,
+            @Value("${app.cache.employee.time-to-live}") Duration employeeTimeToLive,
+            @Value("${app.cache.employee-department-query.max-entries}") long queryEntries,
+            @Value("${app.cache.employee-department-query.time-to-live}") Duration queryTimeToLive) {
+
+        // Own URI per application context, so that contexts started side by side (e.g. in tests) do not share regions
+        CacheManager cacheManager = Caching.getCachingProvider(EhcacheCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        createRegion(cacheManager, Employee.CACHE_REGION, employeeEntries, employeeTimeToLive);
+        createRegion(cacheManager, EmployeeRepository.DEPARTMENT_QUERY_CACHE_REGION, queryEntries, queryTimeToLive);
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, queryEntries,
+                queryTimeToLive);
+        createRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                UPDATE_TIMESTAMPS_ENTRIES, null);
+        return cacheManager;
+    }
+
+    /**
+     * Makes Hibernate use the cache manager above instead of creating its own, unsized one.
+     *
+     * @param hibernateCacheManager : Cache manager holding the Hibernate cache regions
+     * @return : Customizer of the Hibernate properties
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private void createRegion(CacheManager cacheManager, String region, long maxEntries, Duration timeToLive) {
+
+        CacheConfigurationBuilder<Object, Object> configuration = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries));
+        if (timeToLive != null) {
+            configuration = configuration.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive));
+        }
+        cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(configuration));
+    }
+}
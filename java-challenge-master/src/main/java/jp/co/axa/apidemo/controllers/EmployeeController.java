@@ -6,16 +6,22 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jp.co.axa.apidemo.config.ContentNegotiationConfig;
+import jp.co.axa.apidemo.idempotency.IdempotencyStore;
 import jp.co.axa.apidemo.model.EmployeeDTO;
+import jp.co.axa.apidemo.model.EmployeeUpdateStatusDTO;
 import jp.co.axa.apidemo.services.EmployeeService;
+import jp.co.axa.apidemo.writebehind.EmployeeUpdateBuffer;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Controller class containing REST APIs which call service class methods to perform operations
@@ -31,8 +37,18 @@ import java.util.List;
 public class EmployeeController {
 
 
+    //Header sent by clients to make the creation of an employee safe to retry
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    //Header set on responses replayed for a repeated Idempotency-Key
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private EmployeeService employeeService;
 
+    private IdempotencyStore idempotencyStore;
+
+    private EmployeeUpdateBuffer employeeUpdateBuffer;
+
     /**
      * Method to set employee service.
      *
@@ -45,21 +61,31 @@ public class EmployeeController {
 
     /**
      * REST API to retrieve details of all employees via GET request.
+     * Response is written as JSON, CBOR or Smile depending on the Accept header of the request.
      *
+     * @param fields : Optional comma separated list of fields to be returned, e.g. id,name
      * @return : List of details of the all employees stored in database
      */
     @Operation(summary = "Get details of all employees in the organization")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "All employee details fetched successfully",
                     content = { @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = EmployeeDTO.class)) }),
+                            schema = @Schema(implementation = EmployeeDTO.class)),
+                            @Content(mediaType = "application/cbor",
+                                    schema = @Schema(implementation = EmployeeDTO.class)),
+                            @Content(mediaType = "application/x-jackson-smile",
+                                    schema = @Schema(implementation = EmployeeDTO.class)) }),
             @ApiResponse(responseCode = "500", description = "Something went wrong while fetching all employees",
-                    content = @Content) })
-    @GetMapping
-    public ResponseEntity<List<EmployeeDTO>> getAllEmployees() {
+                    content = @Content),
+            @ApiResponse(responseCode = "400", description = "Unknown field requested", content = @Content) })
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            ContentNegotiationConfig.APPLICATION_SMILE_VALUE })
+    public ResponseEntity<List<EmployeeDTO>> getAllEmployees(
+            @Parameter(description = "Comma separated list of fields to be returned, e.g. id,name")
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
 
         log.info("Controller method to fetch all employees in the organization");
-        return ResponseEntity.ok().body(employeeService.retrieveEmployees());
+        return ResponseEntity.ok().body(employeeService.retrieveEmployees(fields));
     }
 
     /**
@@ -89,8 +115,12 @@ public class EmployeeController {
 
 
     /**
-     * REST API to save details of a new user in database using POST request
+     * REST API to save details of a new user in database using POST request.
+     * When an Idempotency-Key header is sent, retries with the same key do not create a new employee but get the
+     * Location of the employee created by the first request.
+     *
      * @param employee : Contains details of new employee to be saved.
+     * @param idempotencyKey : Optional key identifying the request across retries
      * @return : ResponseEntity containing details of the saved employee along with HTTP status code.
      */
     @Operation(summary = "Add a new employee and save details")
@@ -98,17 +128,38 @@ public class EmployeeController {
             @ApiResponse(responseCode = "201", description = "New employee details saved successfully",
                     content = { @Content(mediaType = "application/json",
                             schema = @Schema(implementation = EmployeeDTO.class)) }),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different request",
+                    content = @Content),
             @ApiResponse(responseCode = "500",
                     description = "Error occurred while creating and saving new employee details",
                     content = @Content)})
     @PostMapping
-    public ResponseEntity<EmployeeDTO> saveEmployee(@RequestBody EmployeeDTO employee){
+    public ResponseEntity<EmployeeDTO> saveEmployee(@RequestBody EmployeeDTO employee,
+                                                    @Parameter(description = "Key identifying the request across retries")
+                                                    @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false)
+                                                    String idempotencyKey){
 
         log.info("Controller method to create and save new employee");
-        EmployeeDTO savedEmployee = employeeService.saveEmployee(employee);
-        URI location= ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
-                .buildAndExpand(savedEmployee.getId()).toUri();
-        return ResponseEntity.created(location).build();
+        if (idempotencyKey == null) {
+            EmployeeDTO savedEmployee = employeeService.saveEmployee(employee);
+            return ResponseEntity.created(employeeLocation(savedEmployee.getId())).build();
+        }
+
+        IdempotencyStore.Outcome outcome = idempotencyStore.execute(idempotencyKey, employee,
+                () -> employeeService.saveEmployee(employee));
+        return ResponseEntity.created(employeeLocation(outcome.getEmployeeId()))
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(outcome.isReplayed()))
+                .build();
+    }
+
+    /**
+     * Method to build the Location of an employee created by the current request
+     *
+     * @param employeeId : Id of the created employee
+     * @return : URI of the created employee
+     */
+    private URI employeeLocation(Integer employeeId) {
+        return ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(employeeId).toUri();
     }
 
     /**
@@ -151,6 +202,8 @@ public class EmployeeController {
                             schema = @Schema(implementation = EmployeeDTO.class)) }),
             @ApiResponse(responseCode = "404", description = "Employee not found with given Employee Id",
                     content = @Content),
+            @ApiResponse(responseCode = "409", description = "Employee modified since the given version",
+                    content = @Content),
             @ApiResponse(responseCode = "500",
                     description = "Error occurred while updating employee details by employee id",
                     content = @Content)})
@@ -165,10 +218,64 @@ public class EmployeeController {
         return ResponseEntity.ok().body(updatedEmployee);
     }
 
+    /**
+     * REST API to update details of an existing employee asynchronously using PUT request with async=true.
+     * The update is buffered and written by a later group commit; a later update of the same employee replaces it if
+     * it is not written yet. When a version is given, the update is only written if it matches the stored one.
+     *
+     * @param employeeDTO:  the employee details of the employee to be updated
+     * @param employeeId:  the employee id of the employee whose details are to be updated
+     * @return: ResponseEntity containing the status of the accepted update, with its Location to poll
+     */
+    @Operation(summary = "Update details of an existing employee asynchronously based on employee id input")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Employee update accepted",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = EmployeeUpdateStatusDTO.class)) }),
+            @ApiResponse(responseCode = "500",
+                    description = "Error occurred while accepting the employee update",
+                    content = @Content)})
+    @PutMapping(value = "{employeeId}", params = "async=true")
+    public ResponseEntity<EmployeeUpdateStatusDTO> updateEmployeeAsync(@RequestBody EmployeeDTO employeeDTO,
+                                                                       @Parameter(description = "Id of the employee whose details is to be updated")
+                                                                       @PathVariable Integer employeeId){
+
+        log.info("Controller method to accept asynchronous update of employee with employee id : {}", employeeId);
+        employeeDTO.setId(employeeId);
+        EmployeeUpdateStatusDTO status = employeeUpdateBuffer.submit(employeeDTO);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/employees/updates/{updateId}").buildAndExpand(status.getUpdateId()).toUri();
+        return ResponseEntity.accepted().location(location).body(status);
+    }
+
+    /**
+     * REST API to retrieve the status of an asynchronous employee update via GET request.
+     *
+     * @param updateId: Id of the update returned when it was accepted
+     * @return: ResponseEntity containing the status of the update, or 404 if unknown or no longer retained
+     */
+    @Operation(summary = "Get the status of an asynchronous employee update")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Employee update status fetched successfully",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = EmployeeUpdateStatusDTO.class)) }),
+            @ApiResponse(responseCode = "404", description = "Update not found with given update id",
+                    content = @Content)})
+    @GetMapping("/updates/{updateId}")
+    public ResponseEntity<EmployeeUpdateStatusDTO> getUpdateStatus(
+            @Parameter(description = "Id of the update returned when it was accepted")
+            @PathVariable String updateId) {
+
+        log.info("Controller method to fetch status of employee update : {}", updateId);
+        return ResponseEntity.of(employeeUpdateBuffer.getStatus(updateId));
+    }
+
     /**
      * REST API to retrieve details of all employees tagged to a particular department via GET request.
+     * Response is written as JSON, CBOR or Smile depending on the Accept header of the request.
      *
      * @param department: Department name for which consumer wants all employee details to be fetched from database
+     * @param fields : Optional comma separated list of fields to be returned, e.g. id,name
      * @return : ResponseEntity containing either details of all employees tagged to the department or proper error message if any
      */
     @Operation(summary = "Get details of all employees tagged to a particular department based on department name input")
@@ -176,21 +283,29 @@ public class EmployeeController {
             @ApiResponse(responseCode = "200",
                     description = "All employees tagged to input department fetched successfully",
                     content = { @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = EmployeeDTO.class)) }),
+                            schema = @Schema(implementation = EmployeeDTO.class)),
+                            @Content(mediaType = "application/cbor",
+                                    schema = @Schema(implementation = EmployeeDTO.class)),
+                            @Content(mediaType = "application/x-jackson-smile",
+                                    schema = @Schema(implementation = EmployeeDTO.class)) }),
             @ApiResponse(responseCode = "404",
                     description = "No employee found for given department or department name invalid",
                     content = @Content),
+            @ApiResponse(responseCode = "400", description = "Unknown field requested", content = @Content),
             @ApiResponse(responseCode = "500",
                     description = "Error occurred while fetching employee details by department name",
                     content = @Content)})
 
-    @GetMapping("/departmentName/{department}")
+    @GetMapping(value = "/departmentName/{department}", produces = { MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, ContentNegotiationConfig.APPLICATION_SMILE_VALUE })
     public ResponseEntity<List<EmployeeDTO>> getEmployeesByDepartment(
             @Parameter(description = "Department for which all employees are to be fetched")
-            @PathVariable(name="department") String department) {
+            @PathVariable(name="department") String department,
+            @Parameter(description = "Comma separated list of fields to be returned, e.g. id,name")
+            @RequestParam(name = "fields", required = false) Set<String> fields) {
 
         log.info("Controller method to fetch all employees belonging to department : %s", department);
-        return ResponseEntity.ok().body(employeeService.getEmployeesByDepartment(department));
+        return ResponseEntity.ok().body(employeeService.getEmployeesByDepartment(department, fields));
     }
 
 }
@@ -0,0 +1,103 @@
+package jp.co.axa.apidemo.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jp.co.axa.apidemo.model.DepartmentSalaryStatsDTO;
+import jp.co.axa.apidemo.model.SalaryHistogramDTO;
+import jp.co.axa.apidemo.model.SalaryPercentilesDTO;
+import jp.co.axa.apidemo.services.SalaryAnalyticsService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller class containing REST APIs for salary analytics (percentiles, histograms and department comparisons),
+ * served from the in-memory salary snapshot.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Slf4j
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/v1/analytics/salaries")
+public class SalaryAnalyticsController {
+
+    private SalaryAnalyticsService salaryAnalyticsService;
+
+    /**
+     * REST API to retrieve salary percentiles via GET request.
+     *
+     * @param department  : Optional department name, whole organization if not given
+     * @param percentiles : Requested percentiles, 50, 90 and 99 if not given
+     * @return : ResponseEntity containing the salary at each requested percentile or proper error message if any
+     */
+    @Operation(summary = "Get salary percentiles of a department or of the whole organization")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Salary percentiles computed successfully",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SalaryPercentilesDTO.class)) }),
+            @ApiResponse(responseCode = "400", description = "Percentile out of range", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No employee found for given department",
+                    content = @Content)})
+    @GetMapping("/percentiles")
+    public ResponseEntity<SalaryPercentilesDTO> getSalaryPercentiles(
+            @Parameter(description = "Department name, whole organization if not given")
+            @RequestParam(name = "department", required = false) String department,
+            @Parameter(description = "Comma separated list of percentiles, e.g. 50,90,99")
+            @RequestParam(name = "p", defaultValue = "50,90,99") List<Double> percentiles) {
+
+        log.info("Controller method to fetch salary percentiles for department : {}", department);
+        return ResponseEntity.ok().body(salaryAnalyticsService.getSalaryPercentiles(department, percentiles));
+    }
+
+    /**
+     * REST API to retrieve a histogram of salaries via GET request.
+     *
+     * @param department : Optional department name, whole organization if not given
+     * @param buckets    : Number of buckets of the histogram, 10 if not given
+     * @return : ResponseEntity containing the histogram of salaries or proper error message if any
+     */
+    @Operation(summary = "Get a histogram of salaries of a department or of the whole organization")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Salary histogram computed successfully",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SalaryHistogramDTO.class)) }),
+            @ApiResponse(responseCode = "400", description = "Number of buckets out of range", content = @Content),
+            @ApiResponse(responseCode = "404", description = "No employee found for given department",
+                    content = @Content)})
+    @GetMapping("/histogram")
+    public ResponseEntity<SalaryHistogramDTO> getSalaryHistogram(
+            @Parameter(description = "Department name, whole organization if not given")
+            @RequestParam(name = "department", required = false) String department,
+            @Parameter(description = "Number of buckets of the histogram")
+            @RequestParam(name = "buckets", defaultValue = "10") int buckets) {
+
+        log.info("Controller method to fetch salary histogram for department : {}", department);
+        return ResponseEntity.ok().body(salaryAnalyticsService.getSalaryHistogram(department, buckets));
+    }
+
+    /**
+     * REST API to compare salaries across departments via GET request.
+     *
+     * @return : ResponseEntity containing count, lowest, highest and average salary of each department
+     */
+    @Operation(summary = "Get count, lowest, highest and average salary of each department")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Department salary statistics computed successfully",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = DepartmentSalaryStatsDTO.class)) })})
+    @GetMapping("/departments")
+    public ResponseEntity<List<DepartmentSalaryStatsDTO>> getDepartmentSalaryStats() {
+
+        log.info("Controller method to fetch salary statistics of all departments");
+        return ResponseEntity.ok().body(salaryAnalyticsService.getDepartmentSalaryStats());
+    }
+}
@@ -7,9 +7,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
- * Entity class containing details of EMPLOYEE details as in database
+ * Entity class containing details of EMPLOYEE details as in database.
+ * Employees are kept in the Hibernate second-level cache, in the {@value #CACHE_REGION} region.
  * @author Sumanjula Roy
  * @version 1.0
  */
@@ -19,8 +22,12 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name="EMPLOYEE")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Employee.CACHE_REGION)
 public class Employee {
 
+    //Name of the second-level cache region holding employees
+    public static final String CACHE_REGION = "employee";
 
     //Unique ID of each employee
     @Id
@@ -42,4 +49,9 @@ public class Employee {
     @NotEmpty
     private String department;
 
+    //Version of the employee details, incremented on every update to detect concurrent modifications
+    @Version
+    @Column(name="VERSION")
+    private Long version;
+
 }
@@ -0,0 +1,64 @@
+package jp.co.axa.apidemo.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Entity class containing details of IDEMPOTENCY_KEY as in database, i.e. the employee created for a given
+ * Idempotency-Key so that retries of the same request can be replayed
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name="IDEMPOTENCY_KEY")
+public class IdempotencyRecord implements Persistable<String> {
+
+    //Idempotency-Key sent by the client
+    @Id
+    @Column(name="IDEMPOTENCY_KEY", length = 255)
+    private String idempotencyKey;
+
+    //SHA-256 digest of the request body, used to detect a key reused for a different request
+    @Column(name="REQUEST_DIGEST", length = 64)
+    private String requestDigest;
+
+    //ID of the employee created by the original request
+    @Column(name="EMPLOYEE_ID")
+    private Integer employeeId;
+
+    //Time at which the original request was completed
+    @Column(name="CREATED_AT")
+    private Instant createdAt;
+
+    //Whether the record was read from or written to the database; a new record is inserted on save, failing if the
+    //key is already claimed, instead of being merged over the existing record
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+
+}
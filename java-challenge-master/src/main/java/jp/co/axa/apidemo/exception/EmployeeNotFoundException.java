@@ -6,6 +6,8 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 /**
  * Custom exception class created to handle exception that might occur during employee CRUD operations where
  * employee is not found.
+ * As lookups of missing employees are frequent and expected, the exception records no stack trace and builds its
+ * message by plain concatenation rather than String.format.
  *
  * @author Sumanjula Roy
  * @version 1.0
@@ -27,7 +29,7 @@ public class EmployeeNotFoundException extends RuntimeException{
      * @param fieldValue   the field value on the basis of which employee is being fetched from the database
      */
     public EmployeeNotFoundException(String fieldName, String fieldValue){
-        super(String.format("Employee/s not found with %s : '%s'", fieldName, fieldValue));
+        super("Employee/s not found with " + fieldName + " : '" + fieldValue + "'", null, false, false);
         this.fieldName = fieldName;
         this.fieldValue = fieldValue;
     }
@@ -0,0 +1,27 @@
+package jp.co.axa.apidemo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception class created to handle an update of employee details sent with a version which does not match
+ * the stored one, i.e. the employee was modified in the meantime.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class EmployeeVersionConflictException extends RuntimeException{
+
+    /**
+     * Instantiates a new Employee version conflict exception.
+     *
+     * @param employeeId      : the id of the employee being updated
+     * @param expectedVersion : the version sent with the update
+     * @param actualVersion   : the version stored in the database
+     */
+    public EmployeeVersionConflictException(Integer employeeId, Long expectedVersion, Long actualVersion){
+        super(String.format("Employee with id : '%s' is at version %s, not %s", employeeId, actualVersion,
+                expectedVersion));
+    }
+}
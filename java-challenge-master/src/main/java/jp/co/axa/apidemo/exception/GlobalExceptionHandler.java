@@ -1,6 +1,7 @@
 package jp.co.axa.apidemo.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -36,10 +37,99 @@ public class GlobalExceptionHandler {
                 "EMPLOYEE_NOT_FOUND"
         );
 
-        log.error("Employee not found with given input");
+        log.debug("Employee not found with given input");
         return new ResponseEntity<>(exceptionDetails, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Method to handle an update sent with an outdated employee version.
+     *
+     * @param exception  : Details of the EmployeeVersionConflictException
+     * @param webRequest : Details of the web request
+     * @return : ResponseEntity containing details of the exception in defined format for user readability
+     */
+    @ExceptionHandler(EmployeeVersionConflictException.class)
+    public ResponseEntity<ExceptionDetails> handleEmployeeVersionConflictException(
+            EmployeeVersionConflictException exception, WebRequest webRequest){
+
+        ExceptionDetails exceptionDetails = new ExceptionDetails(
+                LocalDateTime.now(),
+                exception.getMessage(),
+                webRequest.getDescription(false),
+                "EMPLOYEE_VERSION_CONFLICT"
+        );
+
+        log.error("Employee update sent with an outdated version");
+        return new ResponseEntity<>(exceptionDetails, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Method to handle an employee modified concurrently between being read and written by an update, detected by
+     * its version when the update is flushed.
+     *
+     * @param exception  : Details of the OptimisticLockingFailureException
+     * @param webRequest : Details of the web request
+     * @return : ResponseEntity containing details of the exception in defined format for user readability
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ExceptionDetails> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException exception, WebRequest webRequest){
+
+        ExceptionDetails exceptionDetails = new ExceptionDetails(
+                LocalDateTime.now(),
+                "Employee was modified concurrently, fetch its current version and retry",
+                webRequest.getDescription(false),
+                "EMPLOYEE_VERSION_CONFLICT"
+        );
+
+        log.error("Employee modified concurrently during update : {}", exception.getMessage());
+        return new ResponseEntity<>(exceptionDetails, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Method to handle an Idempotency-Key reused for a different request.
+     *
+     * @param exception  : Details of the IdempotencyKeyMismatchException
+     * @param webRequest : Details of the web request
+     * @return : ResponseEntity containing details of the exception in defined format for user readability
+     */
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ExceptionDetails> handleIdempotencyKeyMismatchException(
+            IdempotencyKeyMismatchException exception, WebRequest webRequest){
+
+        ExceptionDetails exceptionDetails = new ExceptionDetails(
+                LocalDateTime.now(),
+                exception.getMessage(),
+                webRequest.getDescription(false),
+                "IDEMPOTENCY_KEY_MISMATCH"
+        );
+
+        log.error("Idempotency-Key reused for a different request");
+        return new ResponseEntity<>(exceptionDetails, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Method to handle invalid input, e.g. an unknown field name requested by the consumer.
+     *
+     * @param exception  : Details of the InvalidInputException
+     * @param webRequest : Details of the web request
+     * @return : ResponseEntity containing details of the exception in defined format for user readability
+     */
+    @ExceptionHandler(InvalidInputException.class)
+    public ResponseEntity<ExceptionDetails> handleInvalidInputException(InvalidInputException exception,
+                                                                        WebRequest webRequest){
+
+        ExceptionDetails exceptionDetails = new ExceptionDetails(
+                LocalDateTime.now(),
+                exception.getMessage(),
+                webRequest.getDescription(false),
+                "BAD_REQUEST"
+        );
+
+        log.error("Invalid input received : {}", exception.getMessage());
+        return new ResponseEntity<>(exceptionDetails, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Method to handle global exceptions throughout the application.
      *
@@ -0,0 +1,24 @@
+package jp.co.axa.apidemo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception class created to handle an Idempotency-Key which is reused for a request different from the one
+ * it was first sent with.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@ResponseStatus(value = HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyMismatchException extends RuntimeException{
+
+    /**
+     * Instantiates a new Idempotency key mismatch exception.
+     *
+     * @param idempotencyKey : the Idempotency-Key which was reused
+     */
+    public IdempotencyKeyMismatchException(String idempotencyKey){
+        super(String.format("Idempotency-Key '%s' was already used for a different request", idempotencyKey));
+    }
+}
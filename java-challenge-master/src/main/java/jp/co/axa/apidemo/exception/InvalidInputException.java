@@ -0,0 +1,24 @@
+package jp.co.axa.apidemo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception class created to handle invalid input sent by the consumer, e.g. an unknown employee field, a
+ * percentile out of range or an Idempotency-Key of invalid length.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidInputException extends RuntimeException{
+
+    /**
+     * Instantiates a new Invalid input exception.
+     *
+     * @param message : Description of the invalid input
+     */
+    public InvalidInputException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,307 @@
+package jp.co.axa.apidemo.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jp.co.axa.apidemo.entities.IdempotencyRecord;
+import jp.co.axa.apidemo.exception.IdempotencyKeyMismatchException;
+import jp.co.axa.apidemo.exception.InvalidInputException;
+import jp.co.axa.apidemo.model.EmployeeDTO;
+import jp.co.axa.apidemo.repositories.IdempotencyRecordRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Deduplication store of employee creations sent with an Idempotency-Key. The first request with a key creates the
+ * employee; retries with the same key get the id of that employee back instead of creating a new one.
+ *
+ * Concurrent requests with the same key collapse on a per-key future of a {@link ConcurrentHashMap}, so only requests
+ * sharing a key wait for each other. Entries expire after a time-to-live and the store is bounded in size. Completed
+ * requests can also be written to the IDEMPOTENCY_KEY table, so that they can still be replayed after a restart or by
+ * another instance sharing the database. The record is inserted in the transaction creating the employee, so that a
+ * key claimed concurrently by another instance rolls the creation back and the winner's employee is replayed instead.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    //Longest Idempotency-Key accepted, matching the IDEMPOTENCY_KEY column
+    private static final int MAX_KEY_LENGTH = 255;
+
+    //Serialises request bodies canonically, i.e. with a stable property order, before they are digested
+    private static final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY).build();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    //Whether an eviction sweep is running, so that only one request pays for it
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration timeToLive;
+
+    private final long maxEntries;
+
+    private final boolean persistent;
+
+    private final Clock clock;
+
+    /**
+     * @param idempotencyRecordRepository : Repository of the IDEMPOTENCY_KEY table
+     * @param transactionTemplate         : Transaction wrapping the creation of an employee with its record
+     * @param timeToLive                  : Time during which a key can be replayed
+     * @param maxEntries                  : Number of keys kept in memory
+     * @param persistent                  : Whether completed requests are also stored in the IDEMPOTENCY_KEY table
+     */
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${app.idempotency.time-to-live:24h}") Duration timeToLive,
+                            @Value("${app.idempotency.max-entries:100000}") long maxEntries,
+                            @Value("${app.idempotency.persistent:false}") boolean persistent) {
+        this(idempotencyRecordRepository, transactionTemplate, timeToLive, maxEntries, persistent, Clock.systemUTC());
+    }
+
+    IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository, TransactionTemplate transactionTemplate,
+                     Duration timeToLive, long maxEntries, boolean persistent, Clock clock) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.timeToLive = timeToLive;
+        this.maxEntries = maxEntries;
+        this.persistent = persistent;
+        this.clock = clock;
+    }
+
+    /**
+     * Method to create an employee at most once per Idempotency-Key
+     *
+     * @param idempotencyKey : Idempotency-Key sent by the client
+     * @param request        : Details of the employee to be created
+     * @param creation       : Creation of the employee, run only for the first request with the key
+     * @return : Id of the employee created for the key, and whether it was created by an earlier request
+     * @throws : {@link IdempotencyKeyMismatchException} in case the key was used for a different request
+     * @throws : {@link InvalidInputException} in case the key is empty or too long
+     */
+    public Outcome execute(String idempotencyKey, EmployeeDTO request, Supplier<EmployeeDTO> creation) {
+
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidInputException(String.format(
+                    "Idempotency-Key must contain between 1 and %d characters", MAX_KEY_LENGTH));
+        }
+        evictIfFull();
+
+        Instant now = clock.instant();
+        Entry entry = new Entry(digest(request), now.plus(timeToLive));
+        while (true) {
+            Entry existing = entries.putIfAbsent(idempotencyKey, entry);
+            if (existing == null) {
+                break;
+            }
+            if (!existing.isExpired(now)) {
+                return replay(idempotencyKey, existing, entry.requestDigest);
+            }
+            if (entries.replace(idempotencyKey, existing, entry)) {
+                break;
+            }
+        }
+
+        // This request owns the key in this instance: replay a stored record, or create the employee
+        try {
+            Optional<IdempotencyRecord> record = findRecord(idempotencyKey, now);
+            if (!record.isPresent()) {
+                try {
+                    Integer employeeId = create(idempotencyKey, entry.requestDigest, creation, now);
+                    entry.employeeId.complete(employeeId);
+                    return new Outcome(employeeId, false);
+                } catch (DataIntegrityViolationException exception) {
+                    // Another instance claimed the key first; the creation of this request was rolled back
+                    record = findRecord(idempotencyKey, now);
+                    if (!record.isPresent()) {
+                        throw exception;
+                    }
+                    log.info("Idempotency-Key {} claimed by another instance", idempotencyKey);
+                }
+            }
+            return replayRecord(idempotencyKey, entry, record.get());
+        } catch (RuntimeException exception) {
+            // No employee was committed for this request, let the next retry run the creation again
+            entries.remove(idempotencyKey, entry);
+            entry.employeeId.completeExceptionally(exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * Method to create the employee, together with its record in persistent mode. Once this method returns, the
+     * employee is committed and the key must not be released any more.
+     */
+    private Integer create(String idempotencyKey, String requestDigest, Supplier<EmployeeDTO> creation,
+                           Instant now) {
+
+        if (!persistent) {
+            return creation.get().getId();
+        }
+        return transactionTemplate.execute(status -> {
+            Integer employeeId = creation.get().getId();
+            // Inserted, not merged: fails on a key already claimed, rolling back the employee created above
+            idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder().idempotencyKey(idempotencyKey)
+                    .requestDigest(requestDigest).employeeId(employeeId).createdAt(now).build());
+            return employeeId;
+        });
+    }
+
+    private Outcome replayRecord(String idempotencyKey, Entry entry, IdempotencyRecord record) {
+
+        if (!record.getRequestDigest().equals(entry.requestDigest)) {
+            throw new IdempotencyKeyMismatchException(idempotencyKey);
+        }
+        log.info("Replaying stored request with Idempotency-Key : {}", idempotencyKey);
+        entry.employeeId.complete(record.getEmployeeId());
+        return new Outcome(record.getEmployeeId(), true);
+    }
+
+    private Outcome replay(String idempotencyKey, Entry existing, String requestDigest) {
+
+        if (!existing.requestDigest.equals(requestDigest)) {
+            throw new IdempotencyKeyMismatchException(idempotencyKey);
+        }
+        try {
+            log.info("Replaying request with Idempotency-Key : {}", idempotencyKey);
+            return new Outcome(existing.employeeId.join(), true);
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw exception;
+        }
+    }
+
+    private Optional<IdempotencyRecord> findRecord(String idempotencyKey, Instant now) {
+
+        if (!persistent) {
+            return Optional.empty();
+        }
+        Optional<IdempotencyRecord> record = idempotencyRecordRepository.findById(idempotencyKey);
+        if (record.isPresent() && !record.get().getCreatedAt().plus(timeToLive).isAfter(now)) {
+            // Expired, free the key so that the record of the new creation can be inserted
+            idempotencyRecordRepository.delete(record.get());
+            return Optional.empty();
+        }
+        return record;
+    }
+
+    /**
+     * Method to compute the SHA-256 digest of the canonical JSON form of a request body
+     *
+     * @param request : Request body
+     * @return : Hexadecimal digest of the request body
+     */
+    static String digest(EmployeeDTO request) {
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(CANONICAL_MAPPER.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (JsonProcessingException | NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("Request body could not be digested", exception);
+        }
+    }
+
+    /**
+     * Removes expired entries once the store is full, then other completed ones if it is still full. Only one
+     * request sweeps at a time; the others go on without waiting.
+     */
+    private void evictIfFull() {
+
+        if (entries.size() < maxEntries || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Instant now = clock.instant();
+            entries.values().removeIf(entry -> entry.isExpired(now));
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() >= maxEntries && iterator.hasNext()) {
+                if (iterator.next().employeeId.isDone()) {
+                    iterator.remove();
+                }
+            }
+            if (persistent) {
+                idempotencyRecordRepository.deleteByCreatedAtBefore(now.minus(timeToLive));
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * @return : Number of keys kept in memory
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Request received with an Idempotency-Key, completed with the id of the created employee.
+     */
+    private static class Entry {
+
+        private final String requestDigest;
+
+        private final Instant expiresAt;
+
+        private final CompletableFuture<Integer> employeeId = new CompletableFuture<>();
+
+        Entry(String requestDigest, Instant expiresAt) {
+            this.requestDigest = requestDigest;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(Instant now) {
+            return employeeId.isDone() && !now.isBefore(expiresAt);
+        }
+    }
+
+    /**
+     * Result of a request sent with an Idempotency-Key.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Outcome {
+
+        //Id of the employee created for the key
+        private final Integer employeeId;
+
+        //Whether the employee was created by an earlier request with the same key
+        private final boolean replayed;
+    }
+}
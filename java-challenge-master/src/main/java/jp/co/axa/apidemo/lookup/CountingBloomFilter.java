@@ -0,0 +1,119 @@
+package jp.co.axa.apidemo.lookup;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counting bloom filter over 64 bit keys, with 4 bit counters packed sixteen to a long so that keys can be removed
+ * as well as added. Updates are lock free, so the filter can be updated concurrently with lookups. A counter which
+ * reaches its maximum sticks there, as its true count is unknown from then on; this can only cause false positives.
+ * A negative answer is always correct as long as only added keys are removed; a positive answer is wrong with the
+ * configured false positive probability as long as no more than the expected number of keys are present.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+class CountingBloomFilter {
+
+    private static final int COUNTER_BITS = 4;
+
+    private static final int COUNTERS_PER_WORD = Long.SIZE / COUNTER_BITS;
+
+    private static final long MAX_COUNT = (1L << COUNTER_BITS) - 1;
+
+    private final AtomicLongArray counters;
+
+    private final long counterCount;
+
+    private final int hashCount;
+
+    /**
+     * @param expectedKeys              : Number of keys the filter is sized for
+     * @param falsePositiveProbability  : Accepted probability of a wrong positive answer
+     */
+    CountingBloomFilter(int expectedKeys, double falsePositiveProbability) {
+
+        long optimalCounters = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveProbability)
+                / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalCounters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD);
+        this.counters = new AtomicLongArray(words);
+        this.counterCount = (long) words * COUNTERS_PER_WORD;
+        this.hashCount = Math.max(1, (int) Math.round((double) counterCount / expectedKeys * Math.log(2)));
+    }
+
+    void add(long key) {
+        update(key, 1);
+    }
+
+    /**
+     * Removes a key which was added before; removing any other key may cause false negatives.
+     */
+    void remove(long key) {
+        update(key, -1);
+    }
+
+    boolean mightContain(long key) {
+
+        long hash = mix(key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long counter = index(first + i * second);
+            if (count(counters.get(word(counter)), counter) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void update(long key, int delta) {
+
+        long hash = mix(key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long counter = index(first + i * second);
+            int word = word(counter);
+            int shift = shift(counter);
+            long current = counters.get(word);
+            while (true) {
+                long count = (current >>> shift) & MAX_COUNT;
+                if (count == MAX_COUNT || (count == 0 && delta < 0)) {
+                    break;
+                }
+                long updated = current + ((long) delta << shift);
+                if (counters.compareAndSet(word, current, updated)) {
+                    break;
+                }
+                current = counters.get(word);
+            }
+        }
+    }
+
+    private long index(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % counterCount;
+    }
+
+    private static int word(long counter) {
+        return (int) (counter / COUNTERS_PER_WORD);
+    }
+
+    private static int shift(long counter) {
+        return (int) (counter % COUNTERS_PER_WORD) * COUNTER_BITS;
+    }
+
+    private static long count(long word, long counter) {
+        return (word >>> shift(counter)) & MAX_COUNT;
+    }
+
+    /**
+     * Finalizer of the 64 bit MurmurHash3, spreading every input bit over the whole hash.
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,217 @@
+package jp.co.axa.apidemo.lookup;
+
+import jp.co.axa.apidemo.model.EmployeeSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Negative lookup filter of existing employee ids and departments, used to answer requests for ids or departments
+ * which certainly do not exist without querying the database. It counts employees, so deleted employees and
+ * departments left by their last employee are removed again.
+ *
+ * The filter only sees the writes of this instance. It is therefore disabled by default (every lookup is answered
+ * as "possibly present") and meant for deployments where a single instance writes to the database; when enabled it
+ * is rebuilt periodically from the database by the {@link EmployeeLookupFilterRebuilder}. Until the filter is loaded
+ * every lookup is answered as "possibly present" as well.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Component
+public class EmployeeLookupFilter {
+
+    //Whether negative answers are given at all
+    private final boolean enabled;
+
+    private final int expectedEmployees;
+
+    private final double falsePositiveProbability;
+
+    //Filters answering the lookups
+    private volatile Generation current;
+
+    //Filters being rebuilt from the database, also receiving the additions made during the rebuild
+    private volatile Generation next;
+
+    //Whether the current filters contain every employee stored in database
+    private volatile boolean loaded;
+
+    /**
+     * @param enabled                  : Whether the filter answers lookups of missing employees
+     * @param expectedEmployees        : Number of employees the filter is sized for
+     * @param falsePositiveProbability : Accepted probability of sending a lookup of a missing employee to the database
+     */
+    public EmployeeLookupFilter(@Value("${app.lookup-filter.enabled:false}") boolean enabled,
+                                @Value("${app.lookup-filter.expected-employees:100000}") int expectedEmployees,
+                                @Value("${app.lookup-filter.false-positive-probability:0.01}")
+                                double falsePositiveProbability) {
+
+        this.enabled = enabled;
+        this.expectedEmployees = expectedEmployees;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.current = enabled ? newGeneration() : null;
+    }
+
+    /**
+     * Method to record an employee id, once the creation of the employee is committed. The rebuilt filter is read
+     * first: if no rebuild is in progress yet, a rebuild starting later scans the committed employee anyway.
+     *
+     * @param employeeId : Id of the employee
+     */
+    public void addEmployeeId(Integer employeeId) {
+        if (enabled) {
+            Generation rebuilding = next;
+            addEmployeeId(rebuilding, employeeId);
+            addEmployeeId(current, employeeId);
+        }
+    }
+
+    /**
+     * Method to record one more employee in a department, once the creation or update moving it there is committed
+     *
+     * @param department : Department name
+     */
+    public void addDepartment(String department) {
+        if (enabled) {
+            Generation rebuilding = next;
+            addDepartment(rebuilding, department);
+            addDepartment(current, department);
+        }
+    }
+
+    /**
+     * Method to capture the filters answering the lookups, before writing a deletion or an update moving an employee
+     * away from its department to the database. The removal is later applied to these filters only.
+     *
+     * @return : Filters answering the lookups, null if the filter is disabled
+     */
+    public Generation currentGeneration() {
+        return current;
+    }
+
+    /**
+     * Method to forget an employee id, once its deletion is committed. The removal is skipped if the filters were
+     * rebuilt since the generation was captured, as the rebuilt filters may not count the employee and a removal could
+     * then hide another employee; the deleted id is left there as a false positive instead.
+     *
+     * @param generation : Filters captured with {@link #currentGeneration()} before the deletion was written
+     * @param employeeId : Id of the employee
+     */
+    public void removeEmployeeId(Generation generation, Integer employeeId) {
+        // A rebuild in progress may not have read the employee yet; it is left there as a false positive as well
+        if (enabled && employeeId != null && generation != null && generation == current) {
+            generation.employeeIds.remove(employeeId);
+        }
+    }
+
+    /**
+     * Method to record one employee less in a department, once the deletion or update moving it away is committed.
+     * Like {@link #removeEmployeeId(Generation, Integer)} it is skipped if the filters were rebuilt in between.
+     *
+     * @param generation : Filters captured with {@link #currentGeneration()} before the change was written
+     * @param department : Department name
+     */
+    public void removeDepartment(Generation generation, String department) {
+        if (enabled && department != null && generation != null && generation == current) {
+            generation.departments.remove(departmentKey(department));
+        }
+    }
+
+    /**
+     * Method to start a rebuild of the filter. Additions made from now on are recorded in the rebuilt filter as well,
+     * so the scan of the database must start after this call.
+     */
+    public synchronized void beginRebuild() {
+        if (enabled) {
+            next = newGeneration();
+        }
+    }
+
+    /**
+     * Method to complete a rebuild with all employees stored in database, replacing the current filter and enabling
+     * negative answers
+     *
+     * @param employees : All employees read from database after {@link #beginRebuild()}
+     */
+    public synchronized void completeRebuild(Collection<EmployeeSnapshot> employees) {
+
+        Generation rebuilt = next;
+        if (rebuilt == null) {
+            return;
+        }
+        employees.forEach(employee -> {
+            addEmployeeId(rebuilt, employee.getId());
+            addDepartment(rebuilt, employee.getDepartment());
+        });
+        current = rebuilt;
+        next = null;
+        loaded = true;
+    }
+
+    /**
+     * @param employeeId : Id of the employee
+     * @return : false if no employee exists with this id, true if it may exist
+     */
+    public boolean mightContainEmployeeId(Integer employeeId) {
+        return !loaded || current.employeeIds.mightContain(employeeId);
+    }
+
+    /**
+     * @param department : Department name, case insensitive
+     * @return : false if no employee belongs to this department, true if some may belong to it
+     */
+    public boolean mightContainDepartment(String department) {
+        return !loaded || current.departments.mightContain(departmentKey(department));
+    }
+
+    private Generation newGeneration() {
+        return new Generation(new CountingBloomFilter(expectedEmployees, falsePositiveProbability),
+                new CountingBloomFilter(expectedEmployees, falsePositiveProbability));
+    }
+
+    private static void addEmployeeId(Generation generation, Integer employeeId) {
+        if (generation != null && employeeId != null) {
+            generation.employeeIds.add(employeeId);
+        }
+    }
+
+    private static void addDepartment(Generation generation, String department) {
+        if (generation != null && department != null) {
+            generation.departments.add(departmentKey(department));
+        }
+    }
+
+    /**
+     * 64 bit FNV-1a hash of the upper cased department name, folded like the UPPER() of the department query so that
+     * every department matched by the database is matched by the filter as well.
+     */
+    private static long departmentKey(String department) {
+        String key = department.toUpperCase(Locale.ROOT);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Filters of employee ids and of department names, replaced together on rebuild.
+     */
+    public static final class Generation {
+
+        //Filter of existing employee ids
+        private final CountingBloomFilter employeeIds;
+
+        //Filter of existing department names, upper cased as department lookups ignore the case
+        private final CountingBloomFilter departments;
+
+        private Generation(CountingBloomFilter employeeIds, CountingBloomFilter departments) {
+            this.employeeIds = employeeIds;
+            this.departments = departments;
+        }
+    }
+}
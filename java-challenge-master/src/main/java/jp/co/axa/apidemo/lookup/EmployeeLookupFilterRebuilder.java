@@ -0,0 +1,45 @@
+package jp.co.axa.apidemo.lookup;
+
+import jp.co.axa.apidemo.model.EmployeeSnapshot;
+import jp.co.axa.apidemo.repositories.EmployeeRepository;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Class rebuilding the {@link EmployeeLookupFilter} from the database at a fixed interval, so that employees created
+ * or deleted by other instances sharing the database are picked up and stale entries are dropped. Only active when
+ * the filter is enabled.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@AllArgsConstructor
+@ConditionalOnProperty(name = "app.lookup-filter.enabled", havingValue = "true")
+public class EmployeeLookupFilterRebuilder {
+
+    //EmployeeRepository object to call methods
+    private EmployeeRepository employeeRepository;
+
+    //Filter to be rebuilt
+    private EmployeeLookupFilter employeeLookupFilter;
+
+    /**
+     * Method to replace the filter with one built from all employees currently stored in database
+     */
+    @Scheduled(initialDelayString = "${app.lookup-filter.rebuild-interval:PT5M}",
+            fixedDelayString = "${app.lookup-filter.rebuild-interval:PT5M}")
+    public void rebuild() {
+
+        log.info("Calling Employee Repository to rebuild the employee lookup filter");
+        employeeLookupFilter.beginRebuild();
+        employeeLookupFilter.completeRebuild(employeeRepository.findAllBy(EmployeeSnapshot.class));
+        log.info("Employee lookup filter rebuilt");
+    }
+}
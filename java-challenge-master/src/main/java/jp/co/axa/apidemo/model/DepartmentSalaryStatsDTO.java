@@ -0,0 +1,32 @@
+package jp.co.axa.apidemo.model;
+
+import lombok.*;
+
+/**
+ * DTO class containing aggregated salaries of a department, used to compare departments
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class DepartmentSalaryStatsDTO {
+
+    //Stores the department name
+    private String department;
+
+    //Stores the number of employees of the department
+    private Long employeeCount;
+
+    //Stores the lowest salary of the department
+    private Long min;
+
+    //Stores the highest salary of the department
+    private Long max;
+
+    //Stores the average salary of the department
+    private Double average;
+
+}
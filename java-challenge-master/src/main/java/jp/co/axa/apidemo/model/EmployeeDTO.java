@@ -1,9 +1,11 @@
 package jp.co.axa.apidemo.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 /**
- * DTO class containing details of employee used for communication between front end application and backend REST APIs
+ * DTO class containing details of employee used for communication between front end application and backend REST APIs.
+ * Fields left empty (e.g. when only a subset of fields is requested) are not written in the response.
  * @author Sumanjula Roy
  * @version 1.0
  */
@@ -12,6 +14,7 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class EmployeeDTO {
 
     //Stores details of employee id for each employee
@@ -26,4 +29,19 @@ public class EmployeeDTO {
     //Stores details of organization department to which each employee belongs to
     private String department;
 
+    //Stores the version of the employee details, checked on update when given
+    private Long version;
+
+    /**
+     * Instantiates employee details without version, e.g. for a new employee.
+     *
+     * @param id         : the employee id
+     * @param name       : the employee name
+     * @param salary     : the employee salary
+     * @param department : the organization department of the employee
+     */
+    public EmployeeDTO(Integer id, String name, Long salary, String department) {
+        this(id, name, salary, department, null);
+    }
+
 }
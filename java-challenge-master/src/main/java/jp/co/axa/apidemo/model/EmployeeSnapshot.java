@@ -0,0 +1,26 @@
+package jp.co.axa.apidemo.model;
+
+/**
+ * Projection interface exposing the id, department and salary of an employee, which is all the in-memory snapshots
+ * need, so that they can be loaded without materialising (and second-level caching) full
+ * {@link jp.co.axa.apidemo.entities.Employee} entities.
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+public interface EmployeeSnapshot {
+
+    /**
+     * @return : Unique ID of the employee
+     */
+    Integer getId();
+
+    /**
+     * @return : Department of the employee
+     */
+    String getDepartment();
+
+    /**
+     * @return : Salary of the employee
+     */
+    Long getSalary();
+}
@@ -0,0 +1,28 @@
+package jp.co.axa.apidemo.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Projection interface exposing only the id and name of an employee, so that the repository selects just these
+ * two columns instead of loading the full {@link jp.co.axa.apidemo.entities.Employee} entity.
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+public interface EmployeeSummary {
+
+    //Names of the fields which can be served from this projection
+    Set<String> FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("id", "name")));
+
+    /**
+     * @return : Unique ID of the employee
+     */
+    Integer getId();
+
+    /**
+     * @return : Name of the employee
+     */
+    String getName();
+}
@@ -0,0 +1,26 @@
+package jp.co.axa.apidemo.model;
+
+import lombok.*;
+
+/**
+ * DTO class containing the status of an employee update accepted in asynchronous mode
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class EmployeeUpdateStatusDTO {
+
+    //Stores the id of the update, used to poll its status
+    private String updateId;
+
+    //Stores the id of the updated employee
+    private Integer employeeId;
+
+    //Stores the status of the update
+    private UpdateStatus status;
+
+}
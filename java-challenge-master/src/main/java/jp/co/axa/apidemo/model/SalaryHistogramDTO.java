@@ -0,0 +1,32 @@
+package jp.co.axa.apidemo.model;
+
+import lombok.*;
+
+/**
+ * DTO class containing a histogram of salaries of a department, or of the whole organization
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class SalaryHistogramDTO {
+
+    //Stores the department name, empty for the whole organization
+    private String department;
+
+    //Stores the lowest salary, which is the start of the first bucket
+    private Long min;
+
+    //Stores the highest salary
+    private Long max;
+
+    //Stores the salary range covered by each bucket
+    private Long bucketWidth;
+
+    //Stores the number of employees in each bucket
+    private long[] counts;
+
+}
@@ -0,0 +1,25 @@
+package jp.co.axa.apidemo.model;
+
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * DTO class containing salary percentiles of a department, or of the whole organization
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class SalaryPercentilesDTO {
+
+    //Stores the department name, empty for the whole organization
+    private String department;
+
+    //Stores the salary at each requested percentile, keyed by percentile (e.g. p50)
+    private Map<String, Long> percentiles;
+
+}
@@ -0,0 +1,27 @@
+package jp.co.axa.apidemo.model;
+
+/**
+ * Status of an employee update accepted in asynchronous mode
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+public enum UpdateStatus {
+
+    //Update waiting in the buffer for the next flush
+    PENDING,
+
+    //Update written to the database
+    APPLIED,
+
+    //Update replaced by a later update of the same employee before being flushed
+    SUPERSEDED,
+
+    //Update not written as its version does not match the stored employee, or the employee was modified concurrently
+    CONFLICT,
+
+    //Update not written as the employee does not exist
+    NOT_FOUND,
+
+    //Update not written due to an unexpected error
+    FAILED
+}
@@ -1,7 +1,10 @@
 package jp.co.axa.apidemo.repositories;
 
+import jakarta.persistence.QueryHint;
 import jp.co.axa.apidemo.entities.Employee;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,10 +17,34 @@ import java.util.List;
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee,Integer> {
 
+    //Name of the query cache region holding results of the department lookups
+    String DEPARTMENT_QUERY_CACHE_REGION = "employee-department-query";
+
     /**
-     * Find employees belonging to a particular department
+     * Find employees belonging to a particular department. Results are kept in the query cache and invalidated by
+     * Hibernate whenever the EMPLOYEE table is modified.
      * @param department : Input department name
      * @return : List of all employees tagged to a particular department
      */
+    @QueryHints({ @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = DEPARTMENT_QUERY_CACHE_REGION) })
     List<Employee> findByDepartmentIgnoreCase(String department);
+
+    /**
+     * Find all employees of the organization as the given projection, selecting only the projected columns
+     * @param type : Projection type, e.g. {@link jp.co.axa.apidemo.model.EmployeeSummary}
+     * @return : List of all employees in the projected structure
+     */
+    <T> List<T> findAllBy(Class<T> type);
+
+    /**
+     * Find employees belonging to a particular department as the given projection, selecting only the projected columns.
+     * Results are kept in the query cache like {@link #findByDepartmentIgnoreCase(String)}.
+     * @param department : Input department name
+     * @param type : Projection type, e.g. {@link jp.co.axa.apidemo.model.EmployeeSummary}
+     * @return : List of all employees tagged to a particular department in the projected structure
+     */
+    @QueryHints({ @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = DEPARTMENT_QUERY_CACHE_REGION) })
+    <T> List<T> findByDepartmentIgnoreCase(String department, Class<T> type);
 }
@@ -0,0 +1,26 @@
+package jp.co.axa.apidemo.repositories;
+
+import jp.co.axa.apidemo.entities.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Idempotency Record Repository interface to store the outcome of requests sent with an Idempotency-Key
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Delete the records which are older than the given time
+     * @param createdAt : Time before which records are expired
+     */
+    @Modifying
+    @Transactional
+    void deleteByCreatedAtBefore(Instant createdAt);
+}
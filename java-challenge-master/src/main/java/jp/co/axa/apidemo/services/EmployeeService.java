@@ -1,8 +1,12 @@
 package jp.co.axa.apidemo.services;
 
 import jp.co.axa.apidemo.model.EmployeeDTO;
+import jp.co.axa.apidemo.model.UpdateStatus;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * EmployeeService interface to declare all employee related functionalities which will be called from controller methods
@@ -18,6 +22,14 @@ public interface EmployeeService {
      */
     public List<EmployeeDTO> retrieveEmployees();
 
+    /**
+     * Method to retrieve only the requested fields of all employees of the organization
+     *
+     * @param fields : Names of the {@link EmployeeDTO} fields to be returned, all fields if null or empty
+     * @return : the list of all employees in {@link EmployeeDTO} structure with only the requested fields set
+     */
+    public List<EmployeeDTO> retrieveEmployees(Set<String> fields);
+
     /**
      * Method to retrieve details of a particular employee of the organization based on the employee id
      *
@@ -49,10 +61,27 @@ public interface EmployeeService {
      */
     public EmployeeDTO updateEmployee(EmployeeDTO employee);
 
+    /**
+     * Method to update details of several existing employees in a single transaction
+     *
+     * @param employees : Details of the employees whom we want to update, the last one wins for a repeated employee id
+     * @return : Status of the update of each employee id
+     */
+    public Map<Integer, UpdateStatus> updateEmployees(Collection<EmployeeDTO> employees);
+
     /**
      * Method to fetch all employees tagged to a particular department
      * @param department : Department name for which user wants to fetch all employees
      * @return : {List<{@link EmployeeDTO}} List of all employees of a particular department
      */
     public List<EmployeeDTO> getEmployeesByDepartment(String department);
+
+    /**
+     * Method to fetch only the requested fields of all employees tagged to a particular department
+     * @param department : Department name for which user wants to fetch all employees
+     * @param fields : Names of the {@link EmployeeDTO} fields to be returned, all fields if null or empty
+     * @return : {List<{@link EmployeeDTO}} List of all employees of a particular department with only the requested
+     * fields set
+     */
+    public List<EmployeeDTO> getEmployeesByDepartment(String department, Set<String> fields);
 }
\ No newline at end of file
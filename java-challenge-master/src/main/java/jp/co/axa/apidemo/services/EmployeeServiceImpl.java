@@ -1,15 +1,32 @@
 package jp.co.axa.apidemo.services;
 
+import jp.co.axa.apidemo.analytics.SalaryColumnStore;
 import jp.co.axa.apidemo.entities.Employee;
 import jp.co.axa.apidemo.exception.EmployeeNotFoundException;
+import jp.co.axa.apidemo.exception.EmployeeVersionConflictException;
+import jp.co.axa.apidemo.exception.InvalidInputException;
+import jp.co.axa.apidemo.lookup.EmployeeLookupFilter;
 import jp.co.axa.apidemo.model.EmployeeDTO;
+import jp.co.axa.apidemo.model.EmployeeSummary;
+import jp.co.axa.apidemo.model.UpdateStatus;
 import jp.co.axa.apidemo.repositories.EmployeeRepository;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -22,6 +39,9 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class EmployeeServiceImpl implements EmployeeService{
 
+    //Names of the {@link EmployeeDTO} fields which can be requested by consumers
+    private static final Set<String> EMPLOYEE_FIELDS = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList("id", "name", "salary", "department")));
 
     //EmployeeRepository object to call methods
     private EmployeeRepository employeeRepository;
@@ -29,6 +49,12 @@ public class EmployeeServiceImpl implements EmployeeService{
     //ModelMapper object to convert data from {@link EmployeeDTO} to {@link Employee} and vice versa
     private ModelMapper mapper;
 
+    //Salary analytics snapshot, kept up to date on every mutation
+    private SalaryColumnStore salaryColumnStore;
+
+    //Filter answering lookups of missing employee ids and departments without querying the database
+    private EmployeeLookupFilter employeeLookupFilter;
+
     /**
      * Method to call employee repository to find all employees of the organization
      *
@@ -43,6 +69,33 @@ public class EmployeeServiceImpl implements EmployeeService{
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Method to fetch only the requested fields of all employees of the organization. When only id and name are
+     * requested the {@link EmployeeSummary} projection is used so that no other column is selected.
+     *
+     * @param fields : Names of the {@link EmployeeDTO} fields to be returned, all fields if null or empty
+     * @return : the list of all employees in {@link EmployeeDTO} structure with only the requested fields set
+     * @throws : {@link InvalidInputException} in case an unknown field is requested
+     */
+    @Override
+    public List<EmployeeDTO> retrieveEmployees(Set<String> fields) {
+
+        Set<String> requestedFields = normalizeFields(fields);
+        if (requestedFields.isEmpty()) {
+            return retrieveEmployees();
+        }
+
+        if (EmployeeSummary.FIELDS.containsAll(requestedFields)) {
+            log.info("Calling Employee Repository to fetch id and name of all employees");
+            return employeeRepository.findAllBy(EmployeeSummary.class).stream()
+                    .map(summary -> toSparseDTO(summary, requestedFields))
+                    .collect(Collectors.toList());
+        }
+
+        return retrieveEmployees().stream().map(employee -> toSparseDTO(employee, requestedFields))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Method to find details of a particular employee of the organization based on the employee id
      *
@@ -53,6 +106,7 @@ public class EmployeeServiceImpl implements EmployeeService{
     @Override
     public EmployeeDTO getEmployee(Integer employeeId) {
 
+        checkEmployeeMightExist(employeeId);
         log.info("Calling Employee Repository to fetch details of existing employee");
         Employee existingEmployee = employeeRepository.findById(employeeId).orElseThrow(
                 () -> new EmployeeNotFoundException("id", employeeId.toString())
@@ -73,6 +127,12 @@ public class EmployeeServiceImpl implements EmployeeService{
         Employee employeeDetails = mapper.map(employee, Employee.class);
         log.info("Calling Employee Repository to save details of new employee");
         Employee savedEmployeeDetails = employeeRepository.save(employeeDetails);
+        afterCommit(() -> {
+            employeeLookupFilter.addEmployeeId(savedEmployeeDetails.getId());
+            employeeLookupFilter.addDepartment(savedEmployeeDetails.getDepartment());
+            salaryColumnStore.upsert(savedEmployeeDetails.getId(), savedEmployeeDetails.getDepartment(),
+                    savedEmployeeDetails.getSalary());
+        });
         log.info("New employee saved successfully");
         return mapper.map(savedEmployeeDetails, EmployeeDTO.class);
     }
@@ -87,12 +147,19 @@ public class EmployeeServiceImpl implements EmployeeService{
     @Override
     public void deleteEmployee(Integer employeeId){
 
+        checkEmployeeMightExist(employeeId);
         log.info("Calling Employee Repository to fetch details of employee to be deleted");
-        employeeRepository.findById(employeeId).orElseThrow(
+        Employee existingEmployee = employeeRepository.findById(employeeId).orElseThrow(
                 () -> new EmployeeNotFoundException("id", employeeId.toString())
         );
+        EmployeeLookupFilter.Generation generation = employeeLookupFilter.currentGeneration();
         log.info("Calling Employee Repository to delete existing employee");
         employeeRepository.deleteById(employeeId);
+        afterCommit(() -> {
+            employeeLookupFilter.removeEmployeeId(generation, employeeId);
+            employeeLookupFilter.removeDepartment(generation, existingEmployee.getDepartment());
+            salaryColumnStore.remove(employeeId);
+        });
     }
 
     /**
@@ -101,26 +168,115 @@ public class EmployeeServiceImpl implements EmployeeService{
      * @param employee : Details of the employee whom we want to update
      * @return : Updated details of the employee in {@link EmployeeDTO} structure
      * @throws : {@link EmployeeNotFoundException} in case employee id is not found to be updated
+     * @throws : {@link EmployeeVersionConflictException} in case a version is given and does not match the stored one
      */
     @Override
     public EmployeeDTO updateEmployee(EmployeeDTO employee) {
 
+        checkEmployeeMightExist(employee.getId());
         log.info("Calling Employee Repository to fetch details of existing employee");
         Employee existingEmployee = employeeRepository.findById(employee.getId()).orElseThrow(
                 () -> new EmployeeNotFoundException( "id", employee.getId().toString())
         );
 
-        existingEmployee.setName(employee.getName());
-        existingEmployee.setSalary(employee.getSalary());
-        existingEmployee.setDepartment(employee.getDepartment());
+        if (!isSameVersion(employee, existingEmployee)) {
+            throw new EmployeeVersionConflictException(employee.getId(), employee.getVersion(),
+                    existingEmployee.getVersion());
+        }
+        applyUpdate(employee, existingEmployee);
 
         log.info("Calling Employee Repository to update details of existing employee");
         Employee updatedEmployee = employeeRepository.save(existingEmployee);
+        afterCommit(() -> salaryColumnStore.upsert(updatedEmployee.getId(), updatedEmployee.getDepartment(),
+                updatedEmployee.getSalary()));
 
         log.info("Employee details updated successfully");
         return mapper.map(updatedEmployee, EmployeeDTO.class);
     }
 
+    /**
+     * Method to update details of several existing employees as one group commit: all employees are fetched with a
+     * single query and written with batched statements in a single transaction.
+     *
+     * @param employees : Details of the employees whom we want to update, the last one wins for a repeated employee id
+     * @return : Status of the update of each employee id, {@link UpdateStatus#CONFLICT} when a version is given and
+     * does not match the stored one
+     */
+    @Override
+    @Transactional
+    public Map<Integer, UpdateStatus> updateEmployees(Collection<EmployeeDTO> employees) {
+
+        Map<Integer, EmployeeDTO> updates = new LinkedHashMap<>();
+        employees.forEach(employee -> updates.put(employee.getId(), employee));
+
+        Map<Integer, UpdateStatus> statuses = new LinkedHashMap<>();
+        updates.keySet().forEach(employeeId -> statuses.put(employeeId, UpdateStatus.NOT_FOUND));
+
+        log.info("Calling Employee Repository to fetch details of {} employees to be updated", updates.size());
+        List<Employee> updatedEmployees = new ArrayList<>();
+        for (Employee existingEmployee : employeeRepository.findAllById(updates.keySet())) {
+            EmployeeDTO employee = updates.get(existingEmployee.getId());
+            if (!isSameVersion(employee, existingEmployee)) {
+                statuses.put(existingEmployee.getId(), UpdateStatus.CONFLICT);
+                continue;
+            }
+            applyUpdate(employee, existingEmployee);
+            updatedEmployees.add(existingEmployee);
+            statuses.put(existingEmployee.getId(), UpdateStatus.APPLIED);
+        }
+
+        log.info("Calling Employee Repository to update details of {} employees", updatedEmployees.size());
+        List<Employee> savedEmployees = employeeRepository.saveAllAndFlush(updatedEmployees);
+        // The snapshot only sees the updates once they are committed, a rolled back group commit never reaches it
+        afterCommit(() -> savedEmployees.forEach(updatedEmployee ->
+                salaryColumnStore.upsert(updatedEmployee.getId(), updatedEmployee.getDepartment(),
+                        updatedEmployee.getSalary())));
+        return statuses;
+    }
+
+    /**
+     * Method to apply a change to the in-memory snapshots (salary analytics and lookup filter) once the surrounding
+     * transaction, if any, is committed, so that they never hold values which were rolled back
+     *
+     * @param change : Change of the snapshots
+     */
+    private void afterCommit(Runnable change) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    /**
+     * Method to check the version sent with an update, which is optional
+     */
+    private boolean isSameVersion(EmployeeDTO employee, Employee existingEmployee) {
+        return employee.getVersion() == null || employee.getVersion().equals(existingEmployee.getVersion());
+    }
+
+    /**
+     * Method to copy the updated details onto the stored employee, before it is written to the database
+     */
+    private void applyUpdate(EmployeeDTO employee, Employee existingEmployee) {
+
+        EmployeeLookupFilter.Generation generation = employeeLookupFilter.currentGeneration();
+        String previousDepartment = existingEmployee.getDepartment();
+        existingEmployee.setName(employee.getName());
+        existingEmployee.setSalary(employee.getSalary());
+        existingEmployee.setDepartment(employee.getDepartment());
+        afterCommit(() -> {
+            employeeLookupFilter.addDepartment(employee.getDepartment());
+            employeeLookupFilter.removeDepartment(generation, previousDepartment);
+        });
+    }
+
     /**
      * Method to fetch all employees tagged to a particular department
      *
@@ -130,6 +286,7 @@ public class EmployeeServiceImpl implements EmployeeService{
     @Override
     public List<EmployeeDTO> getEmployeesByDepartment(String department) {
 
+        checkDepartmentMightExist(department);
         log.info("Calling Employee Repository to fetch details of all employees tagged to department: %s", department);
         List<Employee> employeeListByDept = employeeRepository.findByDepartmentIgnoreCase(department);
 
@@ -142,4 +299,110 @@ public class EmployeeServiceImpl implements EmployeeService{
                 .collect(Collectors.toList());
 
     }
+
+    /**
+     * Method to fetch only the requested fields of all employees tagged to a particular department. When only id and
+     * name are requested the {@link EmployeeSummary} projection is used so that no other column is selected.
+     *
+     * @param department : Department name for which user wants to fetch all employees
+     * @param fields : Names of the {@link EmployeeDTO} fields to be returned, all fields if null or empty
+     * @return : {List<{@link EmployeeDTO}} List of all employees of a particular department with only the requested
+     * fields set
+     * @throws : {@link InvalidInputException} in case an unknown field is requested
+     */
+    @Override
+    public List<EmployeeDTO> getEmployeesByDepartment(String department, Set<String> fields) {
+
+        Set<String> requestedFields = normalizeFields(fields);
+        if (requestedFields.isEmpty()) {
+            return getEmployeesByDepartment(department);
+        }
+
+        if (EmployeeSummary.FIELDS.containsAll(requestedFields)) {
+            checkDepartmentMightExist(department);
+            log.info("Calling Employee Repository to fetch id and name of all employees tagged to department: {}",
+                    department);
+            List<EmployeeSummary> summaries = employeeRepository.findByDepartmentIgnoreCase(department,
+                    EmployeeSummary.class);
+            if (summaries.isEmpty()) {
+                throw new EmployeeNotFoundException("department name", department);
+            }
+            return summaries.stream().map(summary -> toSparseDTO(summary, requestedFields))
+                    .collect(Collectors.toList());
+        }
+
+        return getEmployeesByDepartment(department).stream()
+                .map(employee -> toSparseDTO(employee, requestedFields))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Method to answer lookups of employee ids which certainly do not exist without querying the database
+     *
+     * @param employeeId : Employee id to be looked up
+     * @throws : {@link EmployeeNotFoundException} in case no employee exists with the employee id
+     */
+    private void checkEmployeeMightExist(Integer employeeId) {
+
+        if (employeeId != null && !employeeLookupFilter.mightContainEmployeeId(employeeId)) {
+            throw new EmployeeNotFoundException("id", employeeId.toString());
+        }
+    }
+
+    /**
+     * Method to answer lookups of departments which certainly do not exist without querying the database
+     *
+     * @param department : Department name to be looked up
+     * @throws : {@link EmployeeNotFoundException} in case no employee belongs to the department
+     */
+    private void checkDepartmentMightExist(String department) {
+
+        if (!employeeLookupFilter.mightContainDepartment(department)) {
+            throw new EmployeeNotFoundException("department name", department);
+        }
+    }
+
+    /**
+     * Method to trim and validate the requested field names
+     *
+     * @param fields : Field names as received from the consumer, may be null
+     * @return : Set of trimmed field names, empty if all fields are to be returned
+     * @throws : {@link InvalidInputException} in case an unknown field is requested
+     */
+    private Set<String> normalizeFields(Set<String> fields) {
+
+        if (fields == null) {
+            return Collections.emptySet();
+        }
+        Set<String> requestedFields = fields.stream().map(String::trim).filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+        for (String field : requestedFields) {
+            if (!EMPLOYEE_FIELDS.contains(field)) {
+                throw new InvalidInputException(String.format("Unknown employee field : '%s'", field));
+            }
+        }
+        return requestedFields;
+    }
+
+    /**
+     * Method to copy only the requested fields of an id and name projection
+     */
+    private EmployeeDTO toSparseDTO(EmployeeSummary summary, Set<String> fields) {
+        return EmployeeDTO.builder()
+                .id(fields.contains("id") ? summary.getId() : null)
+                .name(fields.contains("name") ? summary.getName() : null)
+                .build();
+    }
+
+    /**
+     * Method to copy only the requested fields of a fully loaded employee
+     */
+    private EmployeeDTO toSparseDTO(EmployeeDTO employee, Set<String> fields) {
+        return EmployeeDTO.builder()
+                .id(fields.contains("id") ? employee.getId() : null)
+                .name(fields.contains("name") ? employee.getName() : null)
+                .salary(fields.contains("salary") ? employee.getSalary() : null)
+                .department(fields.contains("department") ? employee.getDepartment() : null)
+                .build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package jp.co.axa.apidemo.services;
+
+import jakarta.annotation.PostConstruct;
+import jp.co.axa.apidemo.analytics.SalaryColumnStore;
+import jp.co.axa.apidemo.lookup.EmployeeLookupFilter;
+import jp.co.axa.apidemo.model.EmployeeSnapshot;
+import jp.co.axa.apidemo.repositories.EmployeeRepository;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Class loading the in-memory employee snapshots, i.e. the {@link SalaryColumnStore} and the
+ * {@link EmployeeLookupFilter}, from the database. Both are filled from a single scan of the {@link EmployeeSnapshot}
+ * projection while the application context starts, before requests are served; afterwards they are maintained by
+ * the employee service on every mutation committed by this instance. Only the lookup filter is rebuilt periodically,
+ * so the salary snapshot misses the writes of other instances sharing the database.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+public class EmployeeSnapshotLoader {
+
+    //EmployeeRepository object to call methods
+    private EmployeeRepository employeeRepository;
+
+    //Salary analytics snapshot to be loaded
+    private SalaryColumnStore salaryColumnStore;
+
+    //Filter of existing employee ids and departments to be loaded
+    private EmployeeLookupFilter employeeLookupFilter;
+
+    /**
+     * Method to replace the content of the snapshots with all employees stored in database and enable the negative
+     * answers of the lookup filter. Must not run concurrently with employee mutations, as these would be lost.
+     */
+    @PostConstruct
+    public void load() {
+
+        log.info("Calling Employee Repository to load the employee snapshots");
+        employeeLookupFilter.beginRebuild();
+        List<EmployeeSnapshot> employees = employeeRepository.findAllBy(EmployeeSnapshot.class);
+
+        salaryColumnStore.clear();
+        employees.forEach(employee -> salaryColumnStore.upsert(employee.getId(), employee.getDepartment(),
+                employee.getSalary()));
+        employeeLookupFilter.completeRebuild(employees);
+        log.info("Employee snapshots loaded with {} employees", employees.size());
+    }
+}
@@ -0,0 +1,40 @@
+package jp.co.axa.apidemo.services;
+
+import jp.co.axa.apidemo.model.DepartmentSalaryStatsDTO;
+import jp.co.axa.apidemo.model.SalaryHistogramDTO;
+import jp.co.axa.apidemo.model.SalaryPercentilesDTO;
+
+import java.util.List;
+
+/**
+ * SalaryAnalyticsService interface to declare salary aggregations which will be called from controller methods
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+public interface SalaryAnalyticsService {
+
+    /**
+     * Method to compute salary percentiles of a department or of the whole organization
+     *
+     * @param department  : Department name, null for the whole organization
+     * @param percentiles : Requested percentiles, between 0 (excluded) and 100
+     * @return : Salary at each requested percentile in {@link SalaryPercentilesDTO} structure
+     */
+    public SalaryPercentilesDTO getSalaryPercentiles(String department, List<Double> percentiles);
+
+    /**
+     * Method to compute a histogram of salaries of a department or of the whole organization
+     *
+     * @param department : Department name, null for the whole organization
+     * @param buckets    : Number of buckets of the histogram
+     * @return : Histogram of salaries in {@link SalaryHistogramDTO} structure
+     */
+    public SalaryHistogramDTO getSalaryHistogram(String department, int buckets);
+
+    /**
+     * Method to compute aggregated salaries of every department
+     *
+     * @return : {List<{@link DepartmentSalaryStatsDTO}} Aggregated salaries of each department
+     */
+    public List<DepartmentSalaryStatsDTO> getDepartmentSalaryStats();
+}
@@ -0,0 +1,123 @@
+package jp.co.axa.apidemo.services;
+
+import jp.co.axa.apidemo.analytics.SalaryColumnStore;
+import jp.co.axa.apidemo.exception.EmployeeNotFoundException;
+import jp.co.axa.apidemo.exception.InvalidInputException;
+import jp.co.axa.apidemo.model.DepartmentSalaryStatsDTO;
+import jp.co.axa.apidemo.model.SalaryHistogramDTO;
+import jp.co.axa.apidemo.model.SalaryPercentilesDTO;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Class that implements the {@link SalaryAnalyticsService} interface on top of the in-memory
+ * {@link SalaryColumnStore}, so that no query is sent to the database.
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Service
+@Slf4j
+@AllArgsConstructor
+public class SalaryAnalyticsServiceImpl implements SalaryAnalyticsService {
+
+    //Highest number of buckets accepted for a histogram
+    private static final int MAX_BUCKETS = 1_000;
+
+    //Columnar snapshot of salaries
+    private SalaryColumnStore salaryColumnStore;
+
+    /**
+     * Method to compute nearest-rank salary percentiles of a department or of the whole organization
+     *
+     * @param department  : Department name, null for the whole organization
+     * @param percentiles : Requested percentiles, between 0 (excluded) and 100
+     * @return : Salary at each requested percentile in {@link SalaryPercentilesDTO} structure
+     * @throws : {@link EmployeeNotFoundException} in case no employee is found for the department
+     * @throws : {@link InvalidInputException} in case a percentile is out of range
+     */
+    @Override
+    public SalaryPercentilesDTO getSalaryPercentiles(String department, List<Double> percentiles) {
+
+        double[] requested = new double[percentiles.size()];
+        for (int i = 0; i < requested.length; i++) {
+            requested[i] = percentiles.get(i);
+            if (!(requested[i] > 0 && requested[i] <= 100)) {
+                throw new InvalidInputException(String.format("Percentile out of range : '%s'", requested[i]));
+            }
+        }
+
+        log.info("Computing salary percentiles for department : {}", department);
+        long[] salaries = salaryColumnStore.percentiles(departmentId(department), requested);
+        if (salaries.length == 0) {
+            throw new EmployeeNotFoundException("department name", String.valueOf(department));
+        }
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < requested.length; i++) {
+            result.put("p" + percentiles.get(i).toString().replaceAll("\\.0$", ""), salaries[i]);
+        }
+        return SalaryPercentilesDTO.builder().department(department).percentiles(result).build();
+    }
+
+    /**
+     * Method to compute a histogram of salaries of a department or of the whole organization
+     *
+     * @param department : Department name, null for the whole organization
+     * @param buckets    : Number of buckets of the histogram
+     * @return : Histogram of salaries in {@link SalaryHistogramDTO} structure
+     * @throws : {@link EmployeeNotFoundException} in case no employee is found for the department
+     * @throws : {@link InvalidInputException} in case the number of buckets is out of range
+     */
+    @Override
+    public SalaryHistogramDTO getSalaryHistogram(String department, int buckets) {
+
+        if (buckets < 1 || buckets > MAX_BUCKETS) {
+            throw new InvalidInputException(String.format("Number of buckets must be between 1 and %d : '%d'",
+                    MAX_BUCKETS, buckets));
+        }
+
+        log.info("Computing salary histogram for department : {}", department);
+        SalaryColumnStore.Histogram histogram = salaryColumnStore.histogram(departmentId(department), buckets);
+        if (histogram == null) {
+            throw new EmployeeNotFoundException("department name", String.valueOf(department));
+        }
+        return SalaryHistogramDTO.builder().department(department).min(histogram.getMin()).max(histogram.getMax())
+                .bucketWidth(histogram.getBucketWidth()).counts(histogram.getCounts()).build();
+    }
+
+    /**
+     * Method to compute count, lowest, highest and average salary of every department
+     *
+     * @return : {List<{@link DepartmentSalaryStatsDTO}} Aggregated salaries of each department
+     */
+    @Override
+    public List<DepartmentSalaryStatsDTO> getDepartmentSalaryStats() {
+
+        log.info("Computing salary statistics of all departments");
+        return salaryColumnStore.departmentStatistics().stream()
+                .map(stats -> DepartmentSalaryStatsDTO.builder().department(stats.getDepartment())
+                        .employeeCount(stats.getCount()).min(stats.getMin()).max(stats.getMax())
+                        .average((double) stats.getSum() / stats.getCount()).build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Method to resolve the department id of the snapshot
+     *
+     * @throws : {@link EmployeeNotFoundException} in case no employee was ever seen in the department
+     */
+    private int departmentId(String department) {
+
+        if (department == null) {
+            return SalaryColumnStore.ALL_DEPARTMENTS;
+        }
+        return salaryColumnStore.departmentId(department)
+                .orElseThrow(() -> new EmployeeNotFoundException("department name", department));
+    }
+}
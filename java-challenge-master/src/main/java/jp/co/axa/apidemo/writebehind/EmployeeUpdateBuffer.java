@@ -0,0 +1,250 @@
+package jp.co.axa.apidemo.writebehind;
+
+import jakarta.annotation.PreDestroy;
+import jp.co.axa.apidemo.model.EmployeeDTO;
+import jp.co.axa.apidemo.model.EmployeeUpdateStatusDTO;
+import jp.co.axa.apidemo.model.UpdateStatus;
+import jp.co.axa.apidemo.services.EmployeeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind buffer of asynchronous employee updates. Updates are kept per employee, a later update replacing an
+ * earlier one not yet written (last write wins), and flushed as group commits through
+ * {@link EmployeeService#updateEmployees} every flush interval or as soon as a full batch is waiting.
+ * Each accepted update gets an id whose status can be polled until the status retention has elapsed.
+ * Pending updates are flushed when the application shuts down.
+ *
+ * @author Sumanjula Roy
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class EmployeeUpdateBuffer {
+
+    private final EmployeeService employeeService;
+
+    private final int maxBatchSize;
+
+    private final long statusRetentionNanos;
+
+    //Latest update not yet flushed, per employee id
+    private final Map<Integer, PendingUpdate> pendingUpdates = new ConcurrentHashMap<>();
+
+    //Status of every update accepted within the status retention, per update id
+    private final Map<String, PendingUpdate> updates = new ConcurrentHashMap<>();
+
+    //Submissions share the read lock; shutdown takes the write lock so that no update arrives after the last flush
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-update-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private boolean closed;
+
+    //Whether a flush triggered by a full batch is already queued, so that a burst of updates queues only one
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /**
+     * @param employeeService : Service writing the flushed updates
+     * @param flushInterval   : Time between two flushes
+     * @param maxBatchSize    : Number of updates written by a single group commit, triggering a flush when reached
+     * @param statusRetention : Time during which the status of a flushed update can be polled
+     */
+    public EmployeeUpdateBuffer(EmployeeService employeeService,
+                                @Value("${app.update-buffer.flush-interval:200ms}") Duration flushInterval,
+                                @Value("${app.update-buffer.max-batch-size:100}") int maxBatchSize,
+                                @Value("${app.update-buffer.status-retention:10m}") Duration statusRetention) {
+
+        this.employeeService = employeeService;
+        this.maxBatchSize = maxBatchSize;
+        this.statusRetentionNanos = statusRetention.toNanos();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Method to accept an update of employee details, written by a later flush
+     *
+     * @param employee : Details of the employee to be updated, including its id
+     * @return : Status of the accepted update in {@link EmployeeUpdateStatusDTO} structure
+     * @throws : {@link IllegalStateException} in case the application is shutting down
+     */
+    public EmployeeUpdateStatusDTO submit(EmployeeDTO employee) {
+
+        PendingUpdate update = new PendingUpdate(UUID.randomUUID().toString(), employee);
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Employee updates are not accepted while shutting down");
+            }
+            updates.put(update.updateId, update);
+            PendingUpdate replaced = pendingUpdates.put(employee.getId(), update);
+            if (replaced != null) {
+                replaced.complete(UpdateStatus.SUPERSEDED);
+            }
+        } finally {
+            closeLock.readLock().unlock();
+        }
+
+        if (pendingUpdates.size() >= maxBatchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    // Cleared before flushing, so that updates arriving during the flush can trigger the next one
+                    flushScheduled.set(false);
+                    flushQuietly();
+                });
+            } catch (RejectedExecutionException exception) {
+                flushScheduled.set(false);
+                log.debug("Flusher stopped, update left to the shutdown flush");
+            }
+        }
+        return update.toStatus();
+    }
+
+    /**
+     * Method to get the status of an accepted update
+     *
+     * @param updateId : Id of the update returned on submission
+     * @return : Status of the update, or empty if unknown or no longer retained
+     */
+    public Optional<EmployeeUpdateStatusDTO> getStatus(String updateId) {
+        return Optional.ofNullable(updates.get(updateId)).map(PendingUpdate::toStatus);
+    }
+
+    /**
+     * Method to write every pending update, in group commits of at most the maximum batch size. If a group commit
+     * fails, e.g. on a concurrent modification, its updates are written one by one so that one failing update does
+     * not fail the others.
+     */
+    public synchronized void flush() {
+
+        List<PendingUpdate> batch = new ArrayList<>(maxBatchSize);
+        for (Integer employeeId : pendingUpdates.keySet()) {
+            PendingUpdate update = pendingUpdates.remove(employeeId);
+            if (update != null) {
+                batch.add(update);
+            }
+            if (batch.size() == maxBatchSize) {
+                write(batch);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+        evictExpiredStatuses();
+    }
+
+    /**
+     * Method to flush the pending updates on shutdown, after which no update is accepted
+     */
+    @PreDestroy
+    public void shutdown() {
+
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Flushing {} pending employee updates before shutdown", pendingUpdates.size());
+        flush();
+    }
+
+    private void write(List<PendingUpdate> batch) {
+
+        List<EmployeeDTO> employees = new ArrayList<>(batch.size());
+        batch.forEach(update -> employees.add(update.employee));
+        try {
+            Map<Integer, UpdateStatus> statuses = employeeService.updateEmployees(employees);
+            batch.forEach(update -> update.complete(statuses.getOrDefault(update.employee.getId(),
+                    UpdateStatus.FAILED)));
+        } catch (RuntimeException exception) {
+            if (batch.size() == 1 && exception instanceof OptimisticLockingFailureException) {
+                log.warn("Employee modified concurrently, update not written for employee id : {}",
+                        batch.get(0).employee.getId());
+                batch.get(0).complete(UpdateStatus.CONFLICT);
+                return;
+            }
+            if (batch.size() == 1) {
+                log.error("Employee update failed for employee id : {}", batch.get(0).employee.getId(), exception);
+                batch.get(0).complete(UpdateStatus.FAILED);
+                return;
+            }
+            log.warn("Group commit of {} employee updates failed, writing them one by one", batch.size());
+            batch.forEach(update -> write(Collections.singletonList(update)));
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException exception) {
+            log.error("Flush of employee updates failed", exception);
+        }
+    }
+
+    private void evictExpiredStatuses() {
+        long now = System.nanoTime();
+        updates.values().removeIf(update -> update.status != UpdateStatus.PENDING
+                && now - update.completedAt > statusRetentionNanos);
+    }
+
+    /**
+     * Update accepted in asynchronous mode, with its current status.
+     */
+    private static class PendingUpdate {
+
+        private final String updateId;
+
+        private final EmployeeDTO employee;
+
+        private volatile UpdateStatus status = UpdateStatus.PENDING;
+
+        //Time at which the update reached its final status, written before the status
+        private volatile long completedAt;
+
+        PendingUpdate(String updateId, EmployeeDTO employee) {
+            this.updateId = updateId;
+            this.employee = employee;
+        }
+
+        void complete(UpdateStatus finalStatus) {
+            completedAt = System.nanoTime();
+            status = finalStatus;
+        }
+
+        EmployeeUpdateStatusDTO toStatus() {
+            return EmployeeUpdateStatusDTO.builder().updateId(updateId).employeeId(employee.getId()).status(status)
+                    .build();
+        }
+    }
+}
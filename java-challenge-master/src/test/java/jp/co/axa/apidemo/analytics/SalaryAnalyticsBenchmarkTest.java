@@ -0,0 +1,109 @@
+package jp.co.axa.apidemo.analytics;
+
+import jakarta.persistence.EntityManager;
+import jp.co.axa.apidemo.entities.Employee;
+import jp.co.axa.apidemo.repositories.EmployeeRepository;
+import jp.co.axa.apidemo.services.EmployeeSnapshotLoader;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark comparing salary percentiles served from the {@link SalaryColumnStore} with the equivalent SQL
+ * aggregation on the EMPLOYEE table. Run with mvn -Pbenchmark test.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class SalaryAnalyticsBenchmarkTest {
+
+    private static final String DEPARTMENT = "BENCHMARKDEPT";
+
+    private static final int EMPLOYEE_COUNT = 20_000;
+
+    private static final int ITERATIONS = 50;
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private static final String PERCENTILE_SQL = "SELECT PERCENTILE_DISC(?1) WITHIN GROUP (ORDER BY EMPLOYEE_SALARY) "
+            + "FROM EMPLOYEE WHERE UPPER(DEPARTMENT) = UPPER(?2)";
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private SalaryColumnStore salaryColumnStore;
+
+    @Autowired
+    private EmployeeSnapshotLoader employeeSnapshotLoader;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void tearDown() {
+
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("DELETE FROM Employee e WHERE e.department = :department")
+                .setParameter("department", DEPARTMENT)
+                .executeUpdate());
+        employeeSnapshotLoader.load();
+    }
+
+    @Test
+    public void testSnapshotPercentilesMatchSql() {
+
+        givenEmployees();
+        employeeSnapshotLoader.load();
+        int departmentId = salaryColumnStore.departmentId(DEPARTMENT).getAsInt();
+
+        long[] fromSql = new long[PERCENTILES.length];
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                fromSql[p] = ((Number) entityManager.createNativeQuery(PERCENTILE_SQL)
+                        .setParameter(1, PERCENTILES[p] / 100)
+                        .setParameter(2, DEPARTMENT)
+                        .getSingleResult()).longValue();
+            }
+        }
+        long sqlMicros = (System.nanoTime() - start) / ITERATIONS / 1_000;
+
+        long[] fromSnapshot = null;
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            fromSnapshot = salaryColumnStore.percentiles(departmentId, PERCENTILES);
+        }
+        long snapshotMicros = (System.nanoTime() - start) / ITERATIONS / 1_000;
+
+        log.info("p50/p90/p99 of {} employees : SQL {} us, snapshot {} us", EMPLOYEE_COUNT, sqlMicros,
+                snapshotMicros);
+        for (int p = 0; p < PERCENTILES.length; p++) {
+            assertEquals(fromSql[p], fromSnapshot[p]);
+        }
+    }
+
+    private void givenEmployees() {
+
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>(EMPLOYEE_COUNT);
+        for (int i = 0; i < EMPLOYEE_COUNT; i++) {
+            employees.add(Employee.builder().name("FIRSTNAME LASTNAME " + i).department(DEPARTMENT)
+                    .salary(20_000L + random.nextInt(100_000)).build());
+        }
+        employeeRepository.saveAll(employees);
+    }
+}
@@ -0,0 +1,99 @@
+package jp.co.axa.apidemo.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SalaryColumnStoreTest {
+
+    private static final String SALES = "Sales";
+
+    private static final String FINANCE = "Finance";
+
+    private final SalaryColumnStore salaryColumnStore = new SalaryColumnStore();
+
+    @Test
+    public void testPercentilesUseNearestRank() {
+
+        for (int id = 1; id <= 10; id++) {
+            salaryColumnStore.upsert(id, SALES, id * 1000L);
+        }
+
+        assertArrayEquals(new long[]{5000L, 9000L, 10000L, 1000L}, salaryColumnStore.percentiles(
+                SalaryColumnStore.ALL_DEPARTMENTS, new double[]{50, 90, 100, 1}));
+    }
+
+    @Test
+    public void testUpsertReplacesAndRemoveDeletesEmployee() {
+
+        salaryColumnStore.upsert(1, SALES, 1000L);
+        salaryColumnStore.upsert(2, SALES, 2000L);
+        salaryColumnStore.upsert(3, FINANCE, 3000L);
+
+        salaryColumnStore.upsert(1, FINANCE, 4000L);
+        salaryColumnStore.remove(2);
+        salaryColumnStore.remove(42);
+
+        int finance = salaryColumnStore.departmentId("FINANCE").getAsInt();
+        assertEquals(2, salaryColumnStore.size());
+        assertArrayEquals(new long[]{3000L, 4000L}, salaryColumnStore.percentiles(finance, new double[]{50, 100}));
+        assertEquals(0, salaryColumnStore.percentiles(salaryColumnStore.departmentId(SALES).getAsInt(),
+                new double[]{50}).length);
+        assertFalse(salaryColumnStore.departmentId("Legal").isPresent());
+    }
+
+    @Test
+    public void testHistogram() {
+
+        for (int id = 1; id <= 100; id++) {
+            salaryColumnStore.upsert(id, SALES, id);
+        }
+
+        SalaryColumnStore.Histogram histogram = salaryColumnStore.histogram(SalaryColumnStore.ALL_DEPARTMENTS, 4);
+
+        assertEquals(1, histogram.getMin());
+        assertEquals(100, histogram.getMax());
+        assertEquals(100, Arrays.stream(histogram.getCounts()).sum());
+        assertNull(salaryColumnStore.histogram(salaryColumnStore.departmentId(SALES).getAsInt() + 1, 4));
+    }
+
+    @Test
+    public void testParallelScansMatchSequentialComputation() {
+
+        Random random = new Random(42);
+        int employees = 100_000;
+        long salesCount = 0;
+        for (int id = 1; id <= employees; id++) {
+            String department = id % 3 == 0 ? SALES : FINANCE;
+            long salary = 20_000L + random.nextInt(100_000);
+            salaryColumnStore.upsert(id, department, salary);
+            if (department.equals(SALES)) {
+                salesCount++;
+            }
+        }
+        // Remove every tenth employee to exercise the row moves
+        for (int id = 10; id <= employees; id += 10) {
+            salaryColumnStore.upsert(id, SALES, 0L);
+            salaryColumnStore.remove(id);
+            if (id % 3 == 0) {
+                salesCount--;
+            }
+        }
+
+        List<SalaryColumnStore.DepartmentStatistics> statistics = salaryColumnStore.departmentStatistics();
+        SalaryColumnStore.DepartmentStatistics sales = statistics.stream()
+                .filter(stats -> stats.getDepartment().equals(SALES)).findFirst().get();
+        assertEquals(salesCount, sales.getCount());
+
+        SalaryColumnStore.Histogram histogram = salaryColumnStore.histogram(SalaryColumnStore.ALL_DEPARTMENTS, 10);
+        assertEquals(employees - employees / 10, Arrays.stream(histogram.getCounts()).sum());
+        assertEquals(employees - employees / 10, salaryColumnStore.size());
+    }
+}
@@ -0,0 +1,91 @@
+package jp.co.axa.apidemo.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import jp.co.axa.apidemo.model.EmployeeDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark comparing payload size and serialisation time of an employee list response in JSON, CBOR and Smile.
+ * Run with mvn -Pbenchmark test.
+ */
+@Slf4j
+@Tag("benchmark")
+public class ContentNegotiationBenchmarkTest {
+
+    private static final int EMPLOYEE_COUNT = 10_000;
+
+    private static final int WARMUP_ITERATIONS = 20;
+
+    private static final int MEASURED_ITERATIONS = 50;
+
+    private static final String[] DEPARTMENTS = {"Sales", "Finance", "Engineering", "Human Resources", "Legal"};
+
+    @Test
+    public void testBinaryFormatsAreSmallerThanJson() throws IOException {
+
+        List<EmployeeDTO> employees = givenEmployees();
+
+        byte[] json = benchmark("JSON", new ObjectMapper(), employees);
+        byte[] cbor = benchmark("CBOR", new CBORMapper(), employees);
+        byte[] smile = benchmark("Smile", new SmileMapper(), employees);
+
+        assertTrue(cbor.length < json.length);
+        assertTrue(smile.length < json.length);
+    }
+
+    private byte[] benchmark(String format, ObjectMapper objectMapper, List<EmployeeDTO> employees)
+            throws IOException {
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            objectMapper.writeValueAsBytes(employees);
+        }
+
+        long start = System.nanoTime();
+        byte[] payload = null;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            payload = objectMapper.writeValueAsBytes(employees);
+        }
+        long averageMicros = (System.nanoTime() - start) / MEASURED_ITERATIONS / 1_000;
+
+        // Round trip to make sure the encoding keeps every field of the DTO
+        List<EmployeeDTO> decoded = objectMapper.readValue(payload, new TypeReference<List<EmployeeDTO>>() { });
+        assertEquals(employees, decoded);
+
+        log.info("{} : {} bytes ({} bytes gzipped), {} us per serialisation of {} employees",
+                format, payload.length, gzip(payload).length, averageMicros, employees.size());
+        return payload;
+    }
+
+    private byte[] gzip(byte[] payload) throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(payload);
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<EmployeeDTO> givenEmployees() {
+
+        List<EmployeeDTO> employees = new ArrayList<>(EMPLOYEE_COUNT);
+        for (int i = 1; i <= EMPLOYEE_COUNT; i++) {
+            employees.add(new EmployeeDTO(i, "FIRSTNAME LASTNAME " + i, 30000L + (i * 37L) % 90000L,
+                    DEPARTMENTS[i % DEPARTMENTS.length]));
+        }
+        return employees;
+    }
+}
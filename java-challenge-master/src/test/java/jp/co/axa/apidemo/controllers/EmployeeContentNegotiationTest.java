@@ -0,0 +1,163 @@
+package jp.co.axa.apidemo.controllers;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import jp.co.axa.apidemo.config.ContentNegotiationConfig;
+import jp.co.axa.apidemo.model.EmployeeDTO;
+import jp.co.axa.apidemo.services.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the list endpoints on the embedded server, so that both the registered message converters and the
+ * server.compression settings take part in the response.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class EmployeeContentNegotiationTest {
+
+    private static final String EMPLOYEES_URL = "/api/v1/employees";
+
+    private static final String DEPARTMENT = "Sales";
+
+    private static final String DEPARTMENT_URL = EMPLOYEES_URL + "/departmentName/" + DEPARTMENT;
+
+    //Large enough for the JSON response to exceed server.compression.min-response-size
+    private static final int EMPLOYEE_COUNT = 200;
+
+    private static final MediaType APPLICATION_SMILE =
+            MediaType.valueOf(ContentNegotiationConfig.APPLICATION_SMILE_VALUE);
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    private List<EmployeeDTO> employees;
+
+    @BeforeEach
+    public void setUp() {
+
+        employees = new ArrayList<>(EMPLOYEE_COUNT);
+        for (int i = 1; i <= EMPLOYEE_COUNT; i++) {
+            employees.add(new EmployeeDTO(i, "FIRSTNAME LASTNAME " + i, 50000L + i, DEPARTMENT));
+        }
+        when(employeeService.retrieveEmployees(any())).thenReturn(employees);
+        when(employeeService.getEmployeesByDepartment(eq(DEPARTMENT), any())).thenReturn(employees);
+    }
+
+    @Test
+    public void testAllEmployeesAsCbor() throws IOException {
+        assertNegotiated(EMPLOYEES_URL, MediaType.APPLICATION_CBOR, new CBORMapper());
+    }
+
+    @Test
+    public void testAllEmployeesAsSmile() throws IOException {
+        assertNegotiated(EMPLOYEES_URL, APPLICATION_SMILE, new SmileMapper());
+    }
+
+    @Test
+    public void testEmployeesByDepartmentAsCbor() throws IOException {
+        assertNegotiated(DEPARTMENT_URL, MediaType.APPLICATION_CBOR, new CBORMapper());
+    }
+
+    @Test
+    public void testEmployeesByDepartmentAsSmile() throws IOException {
+        assertNegotiated(DEPARTMENT_URL, APPLICATION_SMILE, new SmileMapper());
+    }
+
+    @Test
+    public void testJsonIsTheDefault() throws IOException {
+
+        for (String url : new String[]{EMPLOYEES_URL, DEPARTMENT_URL}) {
+            HttpHeaders headers = new HttpHeaders();
+            // Any media type, as sent by clients without preference, so the order of the converters decides
+            headers.setAccept(Collections.singletonList(MediaType.ALL));
+            headers.set(HttpHeaders.ACCEPT_ENCODING, "identity");
+            ResponseEntity<byte[]> response = get(url, headers);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(response.getHeaders().getContentType()), url);
+            assertEquals(employees, read(new ObjectMapper(), new ByteArrayInputStream(response.getBody())));
+        }
+    }
+
+    @Test
+    public void testLargeResponsesAreGzipped() throws IOException {
+
+        for (String url : new String[]{EMPLOYEES_URL, DEPARTMENT_URL}) {
+            for (MediaType mediaType : new MediaType[]{MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+                    APPLICATION_SMILE}) {
+
+                HttpHeaders headers = new HttpHeaders();
+                headers.setAccept(Collections.singletonList(mediaType));
+                headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+                ResponseEntity<byte[]> response = get(url, headers);
+
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING),
+                        url + " " + mediaType);
+                assertEquals(employees, read(objectMapperFor(mediaType),
+                        new GZIPInputStream(new ByteArrayInputStream(response.getBody()))));
+            }
+        }
+    }
+
+    private void assertNegotiated(String url, MediaType mediaType, ObjectMapper objectMapper) throws IOException {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(mediaType));
+        // Identity encoding, so that the body can be decoded as is
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "identity");
+        ResponseEntity<byte[]> response = get(url, headers);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(mediaType.isCompatibleWith(response.getHeaders().getContentType()));
+        assertEquals(employees, read(objectMapper, new ByteArrayInputStream(response.getBody())));
+    }
+
+    private ResponseEntity<byte[]> get(String url, HttpHeaders headers) {
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+    }
+
+    private ObjectMapper objectMapperFor(MediaType mediaType) {
+
+        if (MediaType.APPLICATION_CBOR.equals(mediaType)) {
+            return new CBORMapper();
+        }
+        if (APPLICATION_SMILE.equals(mediaType)) {
+            return new SmileMapper();
+        }
+        return new ObjectMapper();
+    }
+
+    private List<EmployeeDTO> read(ObjectMapper objectMapper, InputStream body) throws IOException {
+        return objectMapper.readValue(body, new TypeReference<List<EmployeeDTO>>() { });
+    }
+}
@@ -7,11 +7,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -32,13 +36,30 @@ public class EmployeeControllerTest{
         // Mock data
         List<EmployeeDTO> mockEmployeesList = Collections.singletonList(
                 new EmployeeDTO(ID, "John Doe",50000L, "Sales"));
-        when(employeeService.retrieveEmployees()).thenReturn(mockEmployeesList);
+        when(employeeService.retrieveEmployees(null)).thenReturn(mockEmployeesList);
 
-        assertNotNull(employeeController.getAllEmployees().getBody());
-        assertEquals(1, employeeController.getAllEmployees().getBody().size());
+        assertNotNull(employeeController.getAllEmployees(null).getBody());
+        assertEquals(1, employeeController.getAllEmployees(null).getBody().size());
 
     }
 
+    @Test
+    public void testGetAllEmployeesWithFields() {
+
+        // Mock data
+        Set<String> fields = new HashSet<>(Arrays.asList("id", "name"));
+        List<EmployeeDTO> mockEmployeesList = Collections.singletonList(
+                EmployeeDTO.builder().id(ID).name("John Doe").build());
+        when(employeeService.retrieveEmployees(fields)).thenReturn(mockEmployeesList);
+
+        List<EmployeeDTO> result = employeeController.getAllEmployees(fields).getBody();
+
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertNull(result.get(0).getSalary());
+        assertNull(result.get(0).getDepartment());
+    }
+
     @Test
     public void testGetEmployee() {
         // Mock data
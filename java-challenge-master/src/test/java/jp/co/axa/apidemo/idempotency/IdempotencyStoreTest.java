@@ -0,0 +1,255 @@
+package jp.co.axa.apidemo.idempotency;
+
+import jp.co.axa.apidemo.entities.IdempotencyRecord;
+import jp.co.axa.apidemo.exception.IdempotencyKeyMismatchException;
+import jp.co.axa.apidemo.model.EmployeeDTO;
+import jp.co.axa.apidemo.repositories.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class IdempotencyStoreTest {
+
+    private static final String KEY = "3f1c9d2e-retry";
+
+    private static final Duration TIME_TO_LIVE = Duration.ofHours(1);
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository = mock(IdempotencyRecordRepository.class);
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private final AtomicInteger creations = new AtomicInteger();
+
+    @Test
+    public void testRepeatedKeyIsReplayed() {
+
+        IdempotencyStore store = givenStore(false, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        IdempotencyStore.Outcome first = store.execute(KEY, givenEmployee(), creation());
+        IdempotencyStore.Outcome retry = store.execute(KEY, givenEmployee(), creation());
+
+        assertFalse(first.isReplayed());
+        assertTrue(retry.isReplayed());
+        assertEquals(first.getEmployeeId(), retry.getEmployeeId());
+        assertEquals(1, creations.get());
+    }
+
+    @Test
+    public void testKeyReusedForDifferentRequestIsRejected() {
+
+        IdempotencyStore store = givenStore(false, Clock.fixed(NOW, ZoneOffset.UTC));
+        store.execute(KEY, givenEmployee(), creation());
+
+        EmployeeDTO otherEmployee = givenEmployee();
+        otherEmployee.setSalary(1L);
+        assertThrows(IdempotencyKeyMismatchException.class, () -> store.execute(KEY, otherEmployee, creation()));
+    }
+
+    @Test
+    public void testDigestIdentifiesTheRequestBody() {
+
+        EmployeeDTO otherEmployee = givenEmployee();
+        otherEmployee.setName("OTHER NAME");
+
+        assertEquals(IdempotencyStore.digest(givenEmployee()), IdempotencyStore.digest(givenEmployee()));
+        assertEquals(64, IdempotencyStore.digest(givenEmployee()).length());
+        assertFalse(IdempotencyStore.digest(givenEmployee()).equals(IdempotencyStore.digest(otherEmployee)));
+    }
+
+    @Test
+    public void testFailedCreationCanBeRetried() {
+
+        IdempotencyStore store = givenStore(false, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertThrows(IllegalStateException.class, () -> store.execute(KEY, givenEmployee(), () -> {
+            throw new IllegalStateException("database unavailable");
+        }));
+        IdempotencyStore.Outcome retry = store.execute(KEY, givenEmployee(), creation());
+
+        assertFalse(retry.isReplayed());
+        assertEquals(1, creations.get());
+    }
+
+    @Test
+    public void testExpiredKeyCreatesAgain() {
+
+        MutableClock clock = new MutableClock();
+        IdempotencyStore store = givenStore(false, clock);
+        store.execute(KEY, givenEmployee(), creation());
+
+        clock.instant = NOW.plus(TIME_TO_LIVE);
+        IdempotencyStore.Outcome afterExpiry = store.execute(KEY, givenEmployee(), creation());
+
+        assertFalse(afterExpiry.isReplayed());
+        assertEquals(2, creations.get());
+    }
+
+    @Test
+    public void testConcurrentRetriesCollapseIntoOneCreation() throws Exception {
+
+        IdempotencyStore store = givenStore(false, Clock.systemUTC());
+        int retries = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(retries);
+        try {
+            List<Future<IdempotencyStore.Outcome>> outcomes = new ArrayList<>();
+            for (int i = 0; i < retries; i++) {
+                outcomes.add(executor.submit(() -> {
+                    start.await();
+                    return store.execute(KEY, givenEmployee(), () -> {
+                        sleep();
+                        return creation().get();
+                    });
+                }));
+            }
+            start.countDown();
+
+            int replayed = 0;
+            for (Future<IdempotencyStore.Outcome> outcome : outcomes) {
+                assertEquals(1, outcome.get().getEmployeeId());
+                replayed += outcome.get().isReplayed() ? 1 : 0;
+            }
+            assertEquals(1, creations.get());
+            assertEquals(retries - 1, replayed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPersistentRecordIsReplayedAfterRestart() {
+
+        when(idempotencyRecordRepository.findById(KEY)).thenReturn(Optional.of(givenRecord(42)));
+        IdempotencyStore store = givenStore(true, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        IdempotencyStore.Outcome outcome = store.execute(KEY, givenEmployee(), creation());
+
+        assertTrue(outcome.isReplayed());
+        assertEquals(42, outcome.getEmployeeId());
+        assertEquals(0, creations.get());
+    }
+
+    @Test
+    public void testPersistentStoreSavesRecord() {
+
+        when(idempotencyRecordRepository.findById(KEY)).thenReturn(Optional.empty());
+        IdempotencyStore store = givenStore(true, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        store.execute(KEY, givenEmployee(), creation());
+
+        verify(idempotencyRecordRepository).saveAndFlush(any(IdempotencyRecord.class));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void testKeyClaimedByOtherInstanceIsReplayed() {
+
+        when(idempotencyRecordRepository.findById(KEY)).thenReturn(Optional.empty(), Optional.of(givenRecord(42)));
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate IDEMPOTENCY_KEY"));
+        IdempotencyStore store = givenStore(true, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        IdempotencyStore.Outcome outcome = store.execute(KEY, givenEmployee(), creation());
+
+        assertTrue(outcome.isReplayed());
+        assertEquals(42, outcome.getEmployeeId());
+        // The employee created by this request is rolled back together with its record
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    public void testFailedRecordWriteRollsBackCreation() {
+
+        when(idempotencyRecordRepository.findById(KEY)).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(givenRecord(2));
+        IdempotencyStore store = givenStore(true, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertThrows(IllegalStateException.class, () -> store.execute(KEY, givenEmployee(), creation()));
+        verify(transactionManager).rollback(any());
+
+        IdempotencyStore.Outcome retry = store.execute(KEY, givenEmployee(), creation());
+        assertFalse(retry.isReplayed());
+        assertEquals(2, retry.getEmployeeId());
+    }
+
+    private IdempotencyStore givenStore(boolean persistent, Clock clock) {
+        return new IdempotencyStore(idempotencyRecordRepository, new TransactionTemplate(transactionManager),
+                TIME_TO_LIVE, 100, persistent, clock);
+    }
+
+    private IdempotencyRecord givenRecord(Integer employeeId) {
+        return IdempotencyRecord.builder().idempotencyKey(KEY).requestDigest(IdempotencyStore.digest(givenEmployee()))
+                .employeeId(employeeId).createdAt(NOW).build();
+    }
+
+    private Supplier<EmployeeDTO> creation() {
+        return () -> {
+            EmployeeDTO saved = givenEmployee();
+            saved.setId(creations.incrementAndGet());
+            return saved;
+        };
+    }
+
+    private EmployeeDTO givenEmployee() {
+        return new EmployeeDTO(null, "FIRSTNAME LASTNAME", 50000L, "DEPARTMENT");
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant = NOW;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package jp.co.axa.apidemo.lookup;
+
+import jp.co.axa.apidemo.model.EmployeeSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EmployeeLookupFilterTest {
+
+    private final EmployeeLookupFilter employeeLookupFilter = new EmployeeLookupFilter(true, 1000, 0.01);
+
+    @Test
+    public void testDepartmentsAreFoldedLikeTheUpperCaseQuery() {
+
+        givenLoadedFilter(givenEmployee(1, "Straße"), givenEmployee(2, "ıt"));
+
+        assertTrue(employeeLookupFilter.mightContainDepartment("STRASSE"));
+        assertTrue(employeeLookupFilter.mightContainDepartment("strasse"));
+        assertTrue(employeeLookupFilter.mightContainDepartment("IT"));
+        assertTrue(employeeLookupFilter.mightContainDepartment("it"));
+    }
+
+    @Test
+    public void testDeletedEmployeesAreRemoved() {
+
+        givenLoadedFilter(givenEmployee(1, "SALES"), givenEmployee(2, "SALES"));
+        EmployeeLookupFilter.Generation generation = employeeLookupFilter.currentGeneration();
+
+        employeeLookupFilter.removeEmployeeId(generation, 1);
+        employeeLookupFilter.removeDepartment(generation, "SALES");
+        assertFalse(employeeLookupFilter.mightContainEmployeeId(1));
+        assertTrue(employeeLookupFilter.mightContainEmployeeId(2));
+        assertTrue(employeeLookupFilter.mightContainDepartment("SALES"));
+
+        employeeLookupFilter.removeEmployeeId(generation, 2);
+        employeeLookupFilter.removeDepartment(generation, "SALES");
+        assertFalse(employeeLookupFilter.mightContainEmployeeId(2));
+        assertFalse(employeeLookupFilter.mightContainDepartment("SALES"));
+    }
+
+    @Test
+    public void testAdditionsDuringRebuildAreKept() {
+
+        givenLoadedFilter(givenEmployee(1, "SALES"));
+
+        employeeLookupFilter.beginRebuild();
+        // Created by this instance after the scan of the database read its rows
+        employeeLookupFilter.addEmployeeId(2);
+        employeeLookupFilter.addDepartment("FINANCE");
+        employeeLookupFilter.completeRebuild(Collections.singletonList(givenEmployee(1, "SALES")));
+
+        assertTrue(employeeLookupFilter.mightContainEmployeeId(1));
+        assertTrue(employeeLookupFilter.mightContainEmployeeId(2));
+        assertTrue(employeeLookupFilter.mightContainDepartment("FINANCE"));
+    }
+
+    @Test
+    public void testRemovalsAreSkippedWhenRebuiltBeforeTheCallback() {
+
+        givenLoadedFilter(givenEmployee(1, "SALES"), givenEmployee(2, "SALES"));
+        // Captured before the deletion of employee 1 is written
+        EmployeeLookupFilter.Generation generation = employeeLookupFilter.currentGeneration();
+
+        // Rebuilt after the deletion is committed but before the after commit callback runs
+        givenLoadedFilter(givenEmployee(2, "SALES"));
+        employeeLookupFilter.removeEmployeeId(generation, 1);
+        employeeLookupFilter.removeDepartment(generation, "SALES");
+
+        assertTrue(employeeLookupFilter.mightContainEmployeeId(2));
+        assertTrue(employeeLookupFilter.mightContainDepartment("SALES"));
+    }
+
+    @Test
+    public void testRebuildPicksUpEmployeesOfOtherInstances() {
+
+        givenLoadedFilter(givenEmployee(1, "SALES"));
+        assertFalse(employeeLookupFilter.mightContainEmployeeId(2));
+
+        givenLoadedFilter(givenEmployee(1, "SALES"), givenEmployee(2, "LEGAL"));
+
+        assertTrue(employeeLookupFilter.mightContainEmployeeId(2));
+        assertTrue(employeeLookupFilter.mightContainDepartment("LEGAL"));
+    }
+
+    @Test
+    public void testDisabledFilterAnswersPossiblyPresent() {
+
+        EmployeeLookupFilter disabledFilter = new EmployeeLookupFilter(false, 1000, 0.01);
+        disabledFilter.beginRebuild();
+        disabledFilter.completeRebuild(Collections.emptyList());
+
+        assertTrue(disabledFilter.mightContainEmployeeId(1));
+        assertTrue(disabledFilter.mightContainDepartment("SALES"));
+    }
+
+    private void givenLoadedFilter(EmployeeSnapshot... employees) {
+
+        employeeLookupFilter.beginRebuild();
+        employeeLookupFilter.completeRebuild(Arrays.asList(employees));
+    }
+
+    private EmployeeSnapshot givenEmployee(Integer id, String department) {
+
+        return new EmployeeSnapshot() {
+            @Override
+            public Integer getId() {
+                return id;
+            }
+
+            @Override
+            public String getDepartment() {
+                return department;
+            }
+
+            @Override
+            public Long getSalary() {
+                return 50000L;
+            }
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package jp.co.axa.apidemo.lookup;
+
+import jakarta.persistence.EntityManager;
+import jp.co.axa.apidemo.exception.EmployeeNotFoundException;
+import jp.co.axa.apidemo.model.EmployeeDTO;
+import jp.co.axa.apidemo.repositories.EmployeeRepository;
+import jp.co.axa.apidemo.services.EmployeeService;
+import jp.co.axa.apidemo.services.EmployeeSnapshotLoader;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Benchmark of miss-heavy traffic, comparing lookups of missing employee ids answered by the
+ * {@link EmployeeLookupFilter} with the previous path of a database lookup followed by a stack-trace exception.
+ * Run with mvn -Pbenchmark test.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = {"app.lookup-filter.enabled=true", "spring.jpa.show-sql=false"})
+public class EmployeeNotFoundBenchmarkTest {
+
+    private static final String DEPARTMENT = "LOOKUPDEPT";
+
+    private static final int EXISTING_EMPLOYEES = 1_000;
+
+    private static final int MISSES = 20_000;
+
+    //Missing ids are taken far above the generated ones
+    private static final int FIRST_MISSING_ID = 1_000_000_000;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeLookupFilter employeeLookupFilter;
+
+    @Autowired
+    private EmployeeSnapshotLoader employeeSnapshotLoader;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void tearDown() {
+
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("DELETE FROM Employee e WHERE e.department = :department")
+                .setParameter("department", DEPARTMENT)
+                .executeUpdate());
+        employeeSnapshotLoader.load();
+    }
+
+    @Test
+    public void testMissHeavyTraffic() {
+
+        for (int i = 0; i < EXISTING_EMPLOYEES; i++) {
+            employeeService.saveEmployee(new EmployeeDTO(null, "FIRSTNAME LASTNAME " + i, 50000L, DEPARTMENT));
+        }
+
+        long start = System.nanoTime();
+        int filteredMisses = 0;
+        for (int i = 0; i < MISSES; i++) {
+            try {
+                employeeService.getEmployee(FIRST_MISSING_ID + i);
+            } catch (EmployeeNotFoundException exception) {
+                filteredMisses++;
+            }
+        }
+        long filteredMicros = (System.nanoTime() - start) / 1_000;
+
+        start = System.nanoTime();
+        int databaseMisses = 0;
+        for (int i = 0; i < MISSES; i++) {
+            Integer employeeId = FIRST_MISSING_ID + i;
+            try {
+                employeeRepository.findById(employeeId).orElseThrow(() -> new IllegalStateException(
+                        String.format("Employee/s not found with %s : '%s'", "id", employeeId)));
+            } catch (IllegalStateException exception) {
+                databaseMisses++;
+            }
+        }
+        long databaseMicros = (System.nanoTime() - start) / 1_000;
+
+        log.info("{} misses : lookup filter {} us, database lookup with stack trace {} us", MISSES, filteredMicros,
+                databaseMicros);
+        assertEquals(MISSES, filteredMisses);
+        assertEquals(MISSES, databaseMisses);
+        assertFalse(employeeLookupFilter.mightContainDepartment("NOSUCHDEPT"));
+    }
+}
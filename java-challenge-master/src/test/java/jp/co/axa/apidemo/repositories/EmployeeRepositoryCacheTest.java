@@ -0,0 +1,103 @@
+package jp.co.axa.apidemo.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jp.co.axa.apidemo.entities.Employee;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+public class EmployeeRepositoryCacheTest {
+
+    private static final String DEPARTMENT = "CACHEDDEPT";
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+
+        // The H2 database is shared by all test contexts
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("DELETE FROM Employee e WHERE e.department LIKE :department")
+                .setParameter("department", DEPARTMENT + "%")
+                .executeUpdate());
+    }
+
+    @Test
+    public void testFindByIdIsServedFromSecondLevelCache() {
+
+        Employee employee = employeeRepository.save(givenEmployee("FIRSTNAME LASTNAME", DEPARTMENT + "-ID"));
+
+        employeeRepository.findById(employee.getId());
+        employeeRepository.findById(employee.getId());
+
+        CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(Employee.CACHE_REGION);
+        assertTrue(regionStatistics.getHitCount() >= 1);
+    }
+
+    @Test
+    public void testUpdateAndDeleteInvalidateSecondLevelCache() {
+
+        Employee employee = employeeRepository.save(givenEmployee("FIRSTNAME LASTNAME", DEPARTMENT + "-UPDATE"));
+        employeeRepository.findById(employee.getId());
+
+        employee.setSalary(60000L);
+        employeeRepository.save(employee);
+        assertEquals(60000L, employeeRepository.findById(employee.getId()).get().getSalary());
+
+        employeeRepository.deleteById(employee.getId());
+        assertFalse(employeeRepository.findById(employee.getId()).isPresent());
+    }
+
+    @Test
+    public void testDepartmentLookupIsServedFromQueryCacheAndInvalidatedOnSave() {
+
+        employeeRepository.save(givenEmployee("FIRSTNAME LASTNAME", DEPARTMENT));
+
+        assertEquals(1, employeeRepository.findByDepartmentIgnoreCase(DEPARTMENT).size());
+        assertEquals(1, employeeRepository.findByDepartmentIgnoreCase(DEPARTMENT).size());
+
+        CacheRegionStatistics queryStatistics =
+                statistics.getQueryRegionStatistics(EmployeeRepository.DEPARTMENT_QUERY_CACHE_REGION);
+        assertEquals(1, queryStatistics.getHitCount());
+
+        employeeRepository.save(givenEmployee("OTHER EMPLOYEE", DEPARTMENT));
+
+        assertEquals(2, employeeRepository.findByDepartmentIgnoreCase(DEPARTMENT).size());
+        assertEquals(1, queryStatistics.getHitCount());
+    }
+
+    private Employee givenEmployee(String name, String department) {
+
+        return Employee.builder().name(name).department(department).salary(50000L).build();
+    }
+}
@@ -1,8 +1,15 @@
 package jp.co.axa.apidemo.services;
 
+import jp.co.axa.apidemo.analytics.SalaryColumnStore;
 import jp.co.axa.apidemo.entities.Employee;
 import jp.co.axa.apidemo.exception.EmployeeNotFoundException;
+import jp.co.axa.apidemo.exception.EmployeeVersionConflictException;
+import jp.co.axa.apidemo.exception.InvalidInputException;
+import jp.co.axa.apidemo.lookup.EmployeeLookupFilter;
 import jp.co.axa.apidemo.model.EmployeeDTO;
+import jp.co.axa.apidemo.model.EmployeeSnapshot;
+import jp.co.axa.apidemo.model.EmployeeSummary;
+import jp.co.axa.apidemo.model.UpdateStatus;
 import jp.co.axa.apidemo.repositories.EmployeeRepository;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -10,15 +17,27 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.modelmapper.ModelMapper;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -32,6 +51,12 @@ public class EmployeeServiceImplTest {
     @Spy
     private ModelMapper mapper;
 
+    @Spy
+    private SalaryColumnStore salaryColumnStore;
+
+    @Spy
+    private EmployeeLookupFilter employeeLookupFilter = new EmployeeLookupFilter(true, 100, 0.01);
+
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -79,6 +104,7 @@ public class EmployeeServiceImplTest {
         when(employeeRepository.save(employee)).thenReturn(employee);
         assertEquals(employee, mapper.map(employeeService.saveEmployee(mapper.map(employee, EmployeeDTO.class)),
                 Employee.class));
+        assertSnapshotSalaries(SALARY);
     }
 
     @Test
@@ -87,8 +113,69 @@ public class EmployeeServiceImplTest {
         Employee employee = givenEmployee();
         when(employeeRepository.findById(employee.getId())).thenReturn(Optional.of(employee));
         when(employeeRepository.save(employee)).thenReturn(employee);
-        assertEquals(employee, mapper.map(employeeService.updateEmployee(mapper.map(employee, EmployeeDTO.class)),
-                Employee.class));
+        salaryColumnStore.upsert(ID, DEPARTMENT, SALARY);
+
+        EmployeeDTO update = mapper.map(employee, EmployeeDTO.class);
+        update.setSalary(60000L);
+        assertEquals(employee, mapper.map(employeeService.updateEmployee(update), Employee.class));
+        assertSnapshotSalaries(60000L);
+    }
+
+    @Test
+    public void testUpdateEmployeeWithOutdatedVersion() {
+
+        Employee employee = givenEmployee();
+        employee.setVersion(2L);
+        when(employeeRepository.findById(ID)).thenReturn(Optional.of(employee));
+
+        EmployeeDTO update = mapper.map(employee, EmployeeDTO.class);
+        update.setVersion(1L);
+        assertThrows(EmployeeVersionConflictException.class, () -> employeeService.updateEmployee(update),
+                "errorMessage");
+    }
+
+    @Test
+    public void testUpdateEmployees() {
+
+        Employee employee = givenEmployee();
+        Employee outdatedEmployee = Employee.builder().id(INVALID_ID).name(NAME).department(DEPARTMENT)
+                .salary(SALARY).version(2L).build();
+        when(employeeRepository.findAllById(any())).thenReturn(Arrays.asList(employee, outdatedEmployee));
+        when(employeeRepository.saveAllAndFlush(any())).thenReturn(Collections.singletonList(employee));
+
+        EmployeeDTO update = new EmployeeDTO(ID, NAME, 60000L, DEPARTMENT);
+        EmployeeDTO outdatedUpdate = new EmployeeDTO(INVALID_ID, NAME, 60000L, DEPARTMENT, 1L);
+        EmployeeDTO missingUpdate = new EmployeeDTO(3, NAME, 60000L, DEPARTMENT);
+        Map<Integer, UpdateStatus> statuses = employeeService.updateEmployees(
+                Arrays.asList(update, outdatedUpdate, missingUpdate));
+
+        assertEquals(UpdateStatus.APPLIED, statuses.get(ID));
+        assertEquals(UpdateStatus.CONFLICT, statuses.get(INVALID_ID));
+        assertEquals(UpdateStatus.NOT_FOUND, statuses.get(3));
+        assertEquals(60000L, employee.getSalary());
+        assertEquals(SALARY, outdatedEmployee.getSalary());
+        verify(employeeRepository).saveAllAndFlush(Collections.singletonList(employee));
+        assertSnapshotSalaries(60000L);
+    }
+
+    @Test
+    public void testUpdateEmployeesReachSnapshotOnlyAfterCommit() {
+
+        Employee employee = givenEmployee();
+        when(employeeRepository.findAllById(any())).thenReturn(Collections.singletonList(employee));
+        when(employeeRepository.saveAllAndFlush(any())).thenReturn(Collections.singletonList(employee));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            employeeService.updateEmployees(
+                    Collections.singletonList(new EmployeeDTO(ID, NAME, 60000L, DEPARTMENT)));
+            assertSnapshotSalaries();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertSnapshotSalaries(60000L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -97,6 +184,12 @@ public class EmployeeServiceImplTest {
         Employee employee = givenEmployee();
         when(employeeRepository.findById(employee.getId())).thenReturn(Optional.of(employee));
         doNothing().when(employeeRepository).deleteById(ID);
+        salaryColumnStore.upsert(ID, DEPARTMENT, SALARY);
+
+        employeeService.deleteEmployee(ID);
+
+        verify(employeeRepository).deleteById(ID);
+        assertSnapshotSalaries();
     }
 
     @Test
@@ -116,6 +209,188 @@ public class EmployeeServiceImplTest {
                 "errorMessage");
     }
 
+    @Test
+    public void testRetrieveEmployeesWithSummaryFields() {
+
+        when(employeeRepository.findAllBy(EmployeeSummary.class))
+                .thenReturn(Collections.singletonList(givenEmployeeSummary()));
+
+        List<EmployeeDTO> result = employeeService.retrieveEmployees(givenFields("id", "name"));
+
+        assertEquals(Collections.singletonList(EmployeeDTO.builder().id(ID).name(NAME).build()), result);
+        verify(employeeRepository, never()).findAll();
+    }
+
+    @Test
+    public void testRetrieveEmployeesWithOtherFields() {
+
+        when(employeeRepository.findAll()).thenReturn(Collections.singletonList(givenEmployee()));
+
+        List<EmployeeDTO> result = employeeService.retrieveEmployees(givenFields("name", "salary"));
+
+        assertEquals(NAME, result.get(0).getName());
+        assertEquals(SALARY, result.get(0).getSalary());
+        assertNull(result.get(0).getId());
+        assertNull(result.get(0).getDepartment());
+    }
+
+    @Test
+    public void testRetrieveEmployeesWithUnknownField() {
+
+        assertThrows(InvalidInputException.class,
+                () -> employeeService.retrieveEmployees(givenFields("id", "password")), "errorMessage");
+    }
+
+    @Test
+    public void testGetEmployeesByDepartmentWithSummaryFields() {
+
+        when(employeeRepository.findByDepartmentIgnoreCase(DEPARTMENT, EmployeeSummary.class))
+                .thenReturn(Collections.singletonList(givenEmployeeSummary()));
+
+        List<EmployeeDTO> result = employeeService.getEmployeesByDepartment(DEPARTMENT, givenFields("name"));
+
+        assertEquals(Collections.singletonList(EmployeeDTO.builder().name(NAME).build()), result);
+    }
+
+    @Test
+    public void testGetEmployeesByInvalidDeptWithSummaryFields() {
+
+        when(employeeRepository.findByDepartmentIgnoreCase(INVALID_DEPT, EmployeeSummary.class))
+                .thenReturn(Collections.emptyList());
+        assertThrows(EmployeeNotFoundException.class,
+                () -> employeeService.getEmployeesByDepartment(INVALID_DEPT, givenFields("id")), "errorMessage");
+    }
+
+    @Test
+    public void testGetEmployeeByMissingIdSkipsRepository() {
+
+        givenLoadedLookupFilter(givenEmployee());
+
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.getEmployee(INVALID_ID),
+                "errorMessage");
+        verify(employeeRepository, never()).findById(any());
+    }
+
+    @Test
+    public void testGetEmployeesByMissingDeptSkipsRepository() {
+
+        givenLoadedLookupFilter(givenEmployee());
+
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.getEmployeesByDepartment(INVALID_DEPT),
+                "errorMessage");
+        verify(employeeRepository, never()).findByDepartmentIgnoreCase(anyString());
+    }
+
+    @Test
+    public void testSavedEmployeeIsAddedToLookupFilter() {
+
+        Employee employee = givenEmployee();
+        givenLoadedLookupFilter();
+        when(employeeRepository.save(any(Employee.class))).thenReturn(employee);
+        when(employeeRepository.findById(ID)).thenReturn(Optional.of(employee));
+
+        employeeService.saveEmployee(mapper.map(employee, EmployeeDTO.class));
+
+        assertEquals(employee, mapper.map(employeeService.getEmployee(ID), Employee.class));
+    }
+
+    @Test
+    public void testDeletedEmployeeIsRemovedFromLookupFilter() {
+
+        Employee employee = givenEmployee();
+        givenLoadedLookupFilter(employee);
+        when(employeeRepository.findById(ID)).thenReturn(Optional.of(employee));
+
+        employeeService.deleteEmployee(ID);
+
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.getEmployee(ID), "errorMessage");
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.getEmployeesByDepartment(DEPARTMENT),
+                "errorMessage");
+        verify(employeeRepository, never()).findByDepartmentIgnoreCase(anyString());
+    }
+
+    @Test
+    public void testDeletionDoesNotHideEmployeesOfFilterRebuiltBeforeCommitCallback() {
+
+        Employee employee = givenEmployee();
+        Employee colleague = givenEmployee();
+        colleague.setId(3);
+        givenLoadedLookupFilter(employee, colleague);
+        when(employeeRepository.findById(ID)).thenReturn(Optional.of(employee));
+        when(employeeRepository.findById(colleague.getId())).thenReturn(Optional.of(colleague));
+        when(employeeRepository.findByDepartmentIgnoreCase(DEPARTMENT))
+                .thenReturn(Collections.singletonList(colleague));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            employeeService.deleteEmployee(ID);
+            // Rebuilt from the database once the deletion is committed, before the after commit callback runs
+            givenLoadedLookupFilter(colleague);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(colleague, mapper.map(employeeService.getEmployee(colleague.getId()), Employee.class));
+        assertEquals(1, employeeService.getEmployeesByDepartment(DEPARTMENT).size());
+    }
+
+    private void givenLoadedLookupFilter(Employee... employees) {
+
+        employeeLookupFilter.beginRebuild();
+        employeeLookupFilter.completeRebuild(Arrays.stream(employees).map(this::givenEmployeeSnapshot)
+                .collect(Collectors.toList()));
+    }
+
+    private EmployeeSnapshot givenEmployeeSnapshot(Employee employee) {
+
+        return new EmployeeSnapshot() {
+            @Override
+            public Integer getId() {
+                return employee.getId();
+            }
+
+            @Override
+            public String getDepartment() {
+                return employee.getDepartment();
+            }
+
+            @Override
+            public Long getSalary() {
+                return employee.getSalary();
+            }
+        };
+    }
+
+    private void assertSnapshotSalaries(long... salaries) {
+
+        assertEquals(salaries.length, salaryColumnStore.size());
+        if (salaries.length > 0) {
+            assertArrayEquals(salaries, salaryColumnStore.percentiles(SalaryColumnStore.ALL_DEPARTMENTS,
+                    new double[]{100}));
+        }
+    }
+
+    private Set<String> givenFields(String... fields) {
+        return new HashSet<>(Arrays.asList(fields));
+    }
+
+    private EmployeeSummary givenEmployeeSummary() {
+
+        return new EmployeeSummary() {
+            @Override
+            public Integer getId() {
+                return ID;
+            }
+
+            @Override
+            public String getName() {
+                return NAME;
+            }
+        };
+    }
+
     private Employee givenEmployee() {
 
         return Employee.builder().id(ID).name(NAME).department(DEPARTMENT).salary(SALARY)
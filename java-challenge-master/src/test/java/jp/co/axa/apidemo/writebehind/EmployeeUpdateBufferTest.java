@@ -0,0 +1,115 @@
+package jp.co.axa.apidemo.writebehind;
+
+import jp.co.axa.apidemo.model.EmployeeDTO;
+import jp.co.axa.apidemo.model.EmployeeUpdateStatusDTO;
+import jp.co.axa.apidemo.model.UpdateStatus;
+import jp.co.axa.apidemo.services.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EmployeeUpdateBufferTest {
+
+    private static final Integer ID = 1;
+
+    private static final Integer OTHER_ID = 2;
+
+    private final EmployeeService employeeService = mock(EmployeeService.class);
+
+    //Flushes are triggered by the tests, not by the flush interval
+    private final EmployeeUpdateBuffer employeeUpdateBuffer = new EmployeeUpdateBuffer(employeeService,
+            Duration.ofHours(1), 100, Duration.ofMinutes(10));
+
+    @AfterEach
+    public void tearDown() {
+        employeeUpdateBuffer.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUpdatesOfSameEmployeeAreCoalesced() {
+
+        when(employeeService.updateEmployees(anyCollection())).thenReturn(givenStatuses(UpdateStatus.APPLIED));
+
+        EmployeeUpdateStatusDTO first = employeeUpdateBuffer.submit(givenEmployee(ID, 50000L));
+        EmployeeUpdateStatusDTO second = employeeUpdateBuffer.submit(givenEmployee(ID, 60000L));
+        assertEquals(UpdateStatus.PENDING, status(second));
+        employeeUpdateBuffer.flush();
+
+        ArgumentCaptor<Collection<EmployeeDTO>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(employeeService).updateEmployees(batch.capture());
+        assertEquals(Collections.singletonList(givenEmployee(ID, 60000L)), batch.getValue());
+        assertEquals(UpdateStatus.SUPERSEDED, status(first));
+        assertEquals(UpdateStatus.APPLIED, status(second));
+    }
+
+    @Test
+    public void testFailedGroupCommitIsRetriedOneByOne() {
+
+        when(employeeService.updateEmployees(anyCollection()))
+                .thenThrow(new IllegalStateException("optimistic lock failure"))
+                .thenReturn(Collections.singletonMap(ID, UpdateStatus.APPLIED))
+                .thenThrow(new IllegalStateException("optimistic lock failure"));
+
+        EmployeeUpdateStatusDTO first = employeeUpdateBuffer.submit(givenEmployee(ID, 50000L));
+        EmployeeUpdateStatusDTO second = employeeUpdateBuffer.submit(givenEmployee(OTHER_ID, 50000L));
+        employeeUpdateBuffer.flush();
+
+        verify(employeeService, times(3)).updateEmployees(anyCollection());
+        assertEquals(UpdateStatus.APPLIED, status(first));
+        assertEquals(UpdateStatus.FAILED, status(second));
+    }
+
+    @Test
+    public void testConcurrentModificationIsReportedAsConflict() {
+
+        when(employeeService.updateEmployees(anyCollection()))
+                .thenThrow(new ObjectOptimisticLockingFailureException("Employee", ID));
+
+        EmployeeUpdateStatusDTO update = employeeUpdateBuffer.submit(givenEmployee(ID, 50000L));
+        employeeUpdateBuffer.flush();
+
+        assertEquals(UpdateStatus.CONFLICT, status(update));
+    }
+
+    @Test
+    public void testPendingUpdatesAreFlushedOnShutdown() {
+
+        when(employeeService.updateEmployees(anyCollection())).thenReturn(givenStatuses(UpdateStatus.CONFLICT));
+
+        EmployeeUpdateStatusDTO update = employeeUpdateBuffer.submit(givenEmployee(ID, 50000L));
+        employeeUpdateBuffer.shutdown();
+
+        assertEquals(UpdateStatus.CONFLICT, status(update));
+        assertThrows(IllegalStateException.class, () -> employeeUpdateBuffer.submit(givenEmployee(ID, 1L)));
+    }
+
+    private UpdateStatus status(EmployeeUpdateStatusDTO update) {
+        return employeeUpdateBuffer.getStatus(update.getUpdateId()).get().getStatus();
+    }
+
+    private Map<Integer, UpdateStatus> givenStatuses(UpdateStatus status) {
+        Map<Integer, UpdateStatus> statuses = new HashMap<>();
+        statuses.put(ID, status);
+        return statuses;
+    }
+
+    private EmployeeDTO givenEmployee(Integer id, Long salary) {
+        return new EmployeeDTO(id, "FIRSTNAME LASTNAME", salary, "DEPARTMENT");
+    }
+}